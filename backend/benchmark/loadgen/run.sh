@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+# Capacity test: starts the backend against the load generator's fake JWT issuer instead of Keycloak, then opens
+# one STOMP session per virtual user and drives the send / mark-seen / upload mix through the REST API.
+#
+# Usage (from backend/, with Postgres up and the usual env vars exported except the Keycloak ones):
+#   mvn -q package -DskipTests
+#   benchmark/loadgen/run.sh --users=5000 --connect-rate=500 --duration=120s
+#
+# Any --name=value argument is passed to the generator (see LoadConfig for the full list). Per-user rate limits
+# are raised by default so that the run measures capacity rather than the limiter; export RATE_LIMIT_SCALE=1 to
+# keep production limits and see 429s in the response breakdown instead.
+#
+# Watch the fan-out percentiles and "open at first failure": the former is the end-to-end latency users feel, the
+# latter the session count at which the server (or the OS file-descriptor limit, see ulimit -n on both sides)
+# stopped accepting connections.
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+JAR=$(ls target/*.jar | grep -v plain | head -1)
+PORT=${SERVER_PORT:-9090}
+ISSUER_PORT=${ISSUER_PORT:-8089}
+SCALE=${RATE_LIMIT_SCALE:-1000}
+OUT=${OUT:-target/loadgen}
+mkdir -p "$OUT"
+
+# Decimal multiply: some production rates are fractional (upload refills 0.5/s), which $(( )) would truncate to 0
+scaled() { awk -v base="$1" -v scale="$SCALE" 'BEGIN { print base * scale }'; }
+
+KEYCLOAK_JWK_SET_URI="http://localhost:$ISSUER_PORT/certs" \
+SERVER_PORT=$PORT \
+APPLICATION_RATE_LIMIT_SEND_REFILL_PER_SECOND=$(scaled 5) \
+APPLICATION_RATE_LIMIT_SEND_CAPACITY=$(scaled 20) \
+APPLICATION_RATE_LIMIT_UPLOAD_REFILL_PER_SECOND=$(scaled 0.5) \
+APPLICATION_RATE_LIMIT_UPLOAD_CAPACITY=$(scaled 5) \
+APPLICATION_RATE_LIMIT_READ_REFILL_PER_SECOND=$(scaled 20) \
+APPLICATION_RATE_LIMIT_READ_CAPACITY=$(scaled 60) \
+    java -jar "$JAR" > "$OUT/app.log" 2>&1 &
+APP_PID=$!
+trap 'kill $APP_PID 2>/dev/null' EXIT
+until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+mvn -q -f benchmark/loadgen/pom.xml compile exec:java \
+    -Dexec.args="--base-url=http://localhost:$PORT --issuer-port=$ISSUER_PORT $*" | tee "$OUT/summary.txt"
+
+curl -sf "http://localhost:$PORT/actuator/prometheus" > "$OUT/metrics.txt" || true
@@ -0,0 +1,122 @@
+package com.example.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The REST calls a chat client makes, timed into {@link LoadStats} per operation. Non-2xx responses, including
+ * 429 from the rate limiter and 503 from the concurrency limiter, are counted rather than thrown.
+ */
+final class ApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUrl;
+    private final LoadStats stats;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    ApiClient(URI baseUrl, LoadStats stats) {
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Any authenticated request makes the backend create the user from the token claims.
+     */
+    boolean sync(String token) {
+        return send("sync", request("/api/v1/chats", token).GET()) != null;
+    }
+
+    UUID createChat(String token, UUID senderId, UUID receiverId) {
+        HttpResponse<String> response = send("create-chat", request("/api/v1/chats?senderId=" + senderId + "&receiverId=" + receiverId, token)
+                .POST(HttpRequest.BodyPublishers.noBody()));
+        if (response == null) {
+            return null;
+        }
+        try {
+            JsonNode body = objectMapper.readTree(response.body());
+            return UUID.fromString(body.get("response").asText());
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    void sendText(String token, UUID chatId, UUID senderId, UUID receiverId, String content) {
+        final byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(Map.of(
+                    "chatId", chatId,
+                    "senderId", senderId,
+                    "receiverId", receiverId,
+                    "content", content,
+                    "type", "TEXT"));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        send("send", request("/api/v1/messages", token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body)));
+    }
+
+    void markSeen(String token, UUID chatId) {
+        send("seen", request("/api/v1/messages?chatId=" + chatId, token)
+                .method("PATCH", HttpRequest.BodyPublishers.noBody()));
+    }
+
+    void upload(String token, UUID chatId, byte[] file) {
+        final String boundary = "loadgen-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(file.length + 512);
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"chatId\"\r\n\r\n"
+                + chatId + "\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"load.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(file);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        send("upload", request("/api/v1/messages/upload-media", token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray())));
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token);
+    }
+
+    /**
+     * Returns the response when it was a 2xx, otherwise {@code null}; either way the outcome is recorded.
+     */
+    private HttpResponse<String> send(String operation, HttpRequest.Builder request) {
+        final long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            stats.recordRest(operation, response.statusCode(), System.nanoTime() - start);
+            return response.statusCode() / 100 == 2 ? response : null;
+        } catch (IOException e) {
+            stats.recordRestError(operation);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.loadgen;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stands in for Keycloak: signs RS256 access tokens with a key generated per run and serves the public key as a JWK
+ * set on {@code http://localhost:<port>/certs}. Start the backend with {@code KEYCLOAK_JWK_SET_URI} pointing there.
+ * Tokens carry the claims {@code UserSynchronizer} reads, so every virtual user is created on its first request.
+ */
+final class FakeJwtIssuer implements AutoCloseable {
+
+    private static final Duration TOKEN_LIFETIME = Duration.ofHours(12);
+
+    private final RSAKey key;
+    private final JWSSigner signer;
+    private final HttpServer server;
+    private final String issuer;
+
+    FakeJwtIssuer(int port) throws JOSEException, IOException {
+        this.key = new RSAKeyGenerator(2048)
+                .keyID(UUID.randomUUID().toString())
+                .keyUse(KeyUse.SIGNATURE)
+                .algorithm(JWSAlgorithm.RS256)
+                .generate();
+        this.signer = new RSASSASigner(key);
+        this.issuer = "http://localhost:" + port + "/realms/loadgen";
+
+        final byte[] jwks = new JWKSet(key.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.server.createContext("/certs", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, jwks.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(jwks);
+            }
+        });
+        this.server.start();
+    }
+
+    String jwkSetUri() {
+        return "http://localhost:" + server.getAddress().getPort() + "/certs";
+    }
+
+    String issue(UUID subject, String firstName, String lastName) {
+        final Instant now = Instant.now();
+        final String username = (firstName + "." + lastName).toLowerCase();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(subject.toString())
+                .audience("account")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(TOKEN_LIFETIME)))
+                .claim("preferred_username", username)
+                // Keyed by subject: UserSynchronizer matches users by email, so reusing one across runs would
+                // attach a fresh subject to an old user id
+                .claim("email", subject + "@loadgen.local")
+                .claim("given_name", firstName)
+                .claim("family_name", lastName)
+                .claim("realm_access", Map.of("roles", List.of("USER")))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .keyID(key.getKeyID())
+                .type(JOSEObjectType.JWT)
+                .build(), claims);
+        try {
+            jwt.sign(signer);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to sign token for " + subject, e);
+        }
+        return jwt.serialize();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.loadgen;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command-line settings, given as {@code --name=value}. Every setting has a default so a bare run is a small smoke
+ * test against a local backend.
+ *
+ * @param baseUrl        backend root; the STOMP endpoint is {@code <baseUrl>/ws}
+ * @param users          virtual users, each holding one STOMP session; users are paired into one-to-one chats
+ * @param connectRate    new STOMP sessions opened per second during ramp-up
+ * @param duration       length of the measured phase once all sessions are up
+ * @param thinkTime      mean pause between a user's actions (exponentially distributed)
+ * @param sendWeight     relative weight of text sends in the action mix
+ * @param seenWeight     relative weight of mark-seen calls
+ * @param uploadWeight   relative weight of media uploads
+ * @param uploadKb       size of each uploaded file
+ * @param issuerPort     port of the fake JWKS endpoint the backend must be pointed at
+ * @param reportInterval how often interval statistics are printed
+ */
+record LoadConfig(URI baseUrl, int users, int connectRate, Duration duration, Duration thinkTime,
+                  int sendWeight, int seenWeight, int uploadWeight, int uploadKb, int issuerPort,
+                  Duration reportInterval) {
+
+    static LoadConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadConfig config = new LoadConfig(
+                URI.create(options.getOrDefault("base-url", "http://localhost:9090")),
+                Integer.parseInt(options.getOrDefault("users", "100")),
+                Integer.parseInt(options.getOrDefault("connect-rate", "200")),
+                Duration.parse("PT" + options.getOrDefault("duration", "60s")),
+                Duration.parse("PT" + options.getOrDefault("think-time", "1s")),
+                Integer.parseInt(options.getOrDefault("send-weight", "70")),
+                Integer.parseInt(options.getOrDefault("seen-weight", "25")),
+                Integer.parseInt(options.getOrDefault("upload-weight", "5")),
+                Integer.parseInt(options.getOrDefault("upload-kb", "64")),
+                Integer.parseInt(options.getOrDefault("issuer-port", "8089")),
+                Duration.parse("PT" + options.getOrDefault("report-interval", "10s")));
+        if (config.users() < 2 || config.users() % 2 != 0) {
+            throw new IllegalArgumentException("--users must be an even number of at least 2");
+        }
+        return config;
+    }
+
+    int totalWeight() {
+        return sendWeight + seenWeight + uploadWeight;
+    }
+}
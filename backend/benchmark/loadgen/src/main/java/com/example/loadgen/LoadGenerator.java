@@ -0,0 +1,179 @@
+package com.example.loadgen;
+
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Capacity test for the chat backend. Opens one SockJS/STOMP session per virtual user against {@code /ws}, then
+ * drives a weighted mix of text sends, mark-seen calls and media uploads through the REST API while every session
+ * listens for notifications. Prints per-interval and whole-run throughput and latency percentiles for each REST
+ * operation and for STOMP fan-out, plus how many sessions the server accepted and kept.
+ * <p>
+ * Phases: start the fake issuer, create users (first authenticated request) and pair them into chats, ramp up
+ * sessions at {@code --connect-rate}, run the action mix for {@code --duration}, then drain and report.
+ */
+public final class LoadGenerator {
+
+    private static final int SETUP_CONCURRENCY = 64;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration DRAIN_TIME = Duration.ofSeconds(3);
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final LoadConfig config = LoadConfig.parse(args);
+        final LoadStats stats = new LoadStats();
+
+        try (FakeJwtIssuer issuer = new FakeJwtIssuer(config.issuerPort());
+             ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            System.out.println("JWK set served at " + issuer.jwkSetUri()
+                    + " - the backend must run with KEYCLOAK_JWK_SET_URI set to it");
+
+            final ApiClient api = new ApiClient(config.baseUrl(), stats);
+            final List<VirtualUser> users = createUsers(config, issuer, stats, api, workers);
+            System.out.printf("%d users paired into %d chats%n", users.size(), users.size() / 2);
+
+            final WebSocketStompClient stompClient = stompClient();
+            rampUp(config, users, stompClient, stats);
+            System.out.printf("%d of %d sessions connected%n", stats.openSessions(), users.size());
+
+            final long start = System.nanoTime();
+            final long deadline = start + config.duration().toNanos();
+            final byte[] upload = new byte[config.uploadKb() * 1024];
+            ThreadLocalRandom.current().nextBytes(upload);
+            for (VirtualUser user : users) {
+                if (user.isReady()) {
+                    workers.submit(() -> runUser(user, api, config, upload, deadline));
+                }
+            }
+            report(config, stats, start, deadline);
+
+            Thread.sleep(DRAIN_TIME);
+            stats.printSummary(System.out, Duration.ofNanos(System.nanoTime() - start));
+            users.forEach(VirtualUser::disconnect);
+            stompClient.stop();
+            workers.shutdownNow();
+        }
+    }
+
+    private static List<VirtualUser> createUsers(LoadConfig config, FakeJwtIssuer issuer, LoadStats stats,
+                                                 ApiClient api, ExecutorService workers) throws InterruptedException {
+        final List<VirtualUser> users = new ArrayList<>(config.users());
+        for (int i = 0; i < config.users(); i++) {
+            UUID id = UUID.randomUUID();
+            users.add(new VirtualUser(id, issuer.issue(id, "Load", "User%05d".formatted(i)), stats));
+        }
+
+        final Semaphore inFlight = new Semaphore(SETUP_CONCURRENCY);
+        final List<CompletableFuture<Void>> setup = new ArrayList<>();
+        for (VirtualUser user : users) {
+            inFlight.acquire();
+            setup.add(CompletableFuture.runAsync(() -> api.sync(user.token()), workers)
+                    .whenComplete((ignored, failure) -> inFlight.release()));
+        }
+        CompletableFuture.allOf(setup.toArray(CompletableFuture[]::new)).join();
+
+        setup.clear();
+        for (int i = 0; i < users.size(); i += 2) {
+            final VirtualUser sender = users.get(i);
+            final VirtualUser receiver = users.get(i + 1);
+            inFlight.acquire();
+            setup.add(CompletableFuture.runAsync(() -> {
+                UUID chatId = api.createChat(sender.token(), sender.id(), receiver.id());
+                if (chatId != null) {
+                    sender.pairWith(receiver, chatId);
+                    receiver.pairWith(sender, chatId);
+                }
+            }, workers).whenComplete((ignored, failure) -> inFlight.release()));
+        }
+        CompletableFuture.allOf(setup.toArray(CompletableFuture[]::new)).join();
+        return users;
+    }
+
+    private static WebSocketStompClient stompClient() {
+        final SockJsClient sockJsClient = new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient())));
+        final ThreadPoolTaskScheduler heartbeats = new ThreadPoolTaskScheduler();
+        heartbeats.setPoolSize(2);
+        heartbeats.setThreadNamePrefix("stomp-heartbeat-");
+        heartbeats.setDaemon(true);
+        heartbeats.initialize();
+
+        final WebSocketStompClient client = new WebSocketStompClient(sockJsClient);
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        client.setTaskScheduler(heartbeats);
+        client.setDefaultHeartbeat(new long[]{10_000, 10_000});
+        return client;
+    }
+
+    /**
+     * Opens sessions at the configured rate and waits for the stragglers. Failures are counted, not retried, so the
+     * summary shows the point at which the server stopped accepting connections.
+     */
+    private static void rampUp(LoadConfig config, List<VirtualUser> users, WebSocketStompClient client,
+                               LoadStats stats) throws InterruptedException {
+        final String url = config.baseUrl().resolve("/ws").toString();
+        final long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(config.connectRate(), 1);
+        final List<CompletableFuture<?>> pending = new ArrayList<>(users.size());
+        long next = System.nanoTime();
+        for (VirtualUser user : users) {
+            final long wait = next - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            next += intervalNanos;
+            pending.add(user.connect(client, url));
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                    .get(CONNECT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            System.err.println("Some sessions did not connect within " + CONNECT_TIMEOUT.toSeconds() + "s");
+        } catch (ExecutionException ignored) {
+            // counted per session in LoadStats
+        }
+    }
+
+    private static void runUser(VirtualUser user, ApiClient api, LoadConfig config, byte[] upload, long deadline) {
+        final double meanThinkNanos = config.thinkTime().toNanos();
+        try {
+            while (System.nanoTime() < deadline && user.isReady()) {
+                final long think = (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanThinkNanos);
+                TimeUnit.NANOSECONDS.sleep(Math.min(think, Math.max(deadline - System.nanoTime(), 0)));
+                if (System.nanoTime() < deadline) {
+                    user.act(api, config, upload);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void report(LoadConfig config, LoadStats stats, long start, long deadline) throws InterruptedException {
+        final long intervalNanos = config.reportInterval().toNanos();
+        long last = start;
+        while (System.nanoTime() < deadline) {
+            TimeUnit.NANOSECONDS.sleep(Math.min(intervalNanos, deadline - System.nanoTime()));
+            final long now = System.nanoTime();
+            stats.printInterval(System.out, Duration.ofNanos(now - start), Duration.ofNanos(now - last));
+            last = now;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe counters and latency histograms for one run. Latencies are kept in microseconds in HdrHistogram
+ * recorders, so interval snapshots never block the recording threads; each snapshot is also folded into a
+ * whole-run histogram for the final summary.
+ */
+final class LoadStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Map<String, Latency> rest = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final Latency fanOut = new Latency();
+    private final Latency connect = new Latency();
+    private final LongAdder notifications = new LongAdder();
+    private final LongAdder acksSent = new LongAdder();
+
+    private final AtomicInteger openSessions = new AtomicInteger();
+    private final AtomicInteger peakSessions = new AtomicInteger();
+    private final LongAdder connectFailures = new LongAdder();
+    private final LongAdder sessionsDropped = new LongAdder();
+    private final AtomicInteger openAtFirstFailure = new AtomicInteger(-1);
+
+    void recordRest(String operation, int status, long nanos) {
+        rest.computeIfAbsent(operation, op -> new Latency()).record(nanos);
+        statuses.computeIfAbsent(operation + " " + status, key -> new LongAdder()).increment();
+    }
+
+    void recordRestError(String operation) {
+        statuses.computeIfAbsent(operation + " io-error", key -> new LongAdder()).increment();
+    }
+
+    void recordFanOut(long nanos) {
+        fanOut.record(nanos);
+    }
+
+    void notificationReceived() {
+        notifications.increment();
+    }
+
+    void ackSent() {
+        acksSent.increment();
+    }
+
+    void sessionOpened(long connectNanos) {
+        connect.record(connectNanos);
+        peakSessions.accumulateAndGet(openSessions.incrementAndGet(), Math::max);
+    }
+
+    void sessionFailed() {
+        connectFailures.increment();
+        openAtFirstFailure.compareAndSet(-1, openSessions.get());
+    }
+
+    void sessionLost() {
+        openSessions.decrementAndGet();
+        sessionsDropped.increment();
+    }
+
+    void sessionClosed() {
+        openSessions.decrementAndGet();
+    }
+
+    int openSessions() {
+        return openSessions.get();
+    }
+
+    void printInterval(PrintStream out, Duration elapsed, Duration interval) {
+        final double seconds = interval.toMillis() / 1000.0;
+        out.printf("%n[%4ds] sessions=%d notifications=%d%n", elapsed.toSeconds(), openSessions.get(), notifications.sum());
+        printHeader(out);
+        new TreeMap<>(rest).forEach((operation, latency) -> printRow(out, operation, latency.interval(), seconds));
+        printRow(out, "fan-out", fanOut.interval(), seconds);
+    }
+
+    void printSummary(PrintStream out, Duration measured) {
+        final double seconds = measured.toMillis() / 1000.0;
+        out.printf("%n==== Summary over %ds ====%n", measured.toSeconds());
+        printHeader(out);
+        new TreeMap<>(rest).forEach((operation, latency) -> printRow(out, operation, latency.total(), seconds));
+        printRow(out, "fan-out", fanOut.total(), seconds);
+
+        out.println();
+        out.println("Responses:");
+        new TreeMap<>(statuses).forEach((key, count) -> out.printf("  %-24s %10d%n", key, count.sum()));
+
+        out.println();
+        out.println("Connections:");
+        out.printf("  peak concurrent sessions   %10d%n", peakSessions.get());
+        out.printf("  connect failures           %10d%n", connectFailures.sum());
+        out.printf("  open at first failure      %10s%n", openAtFirstFailure.get() < 0 ? "-" : openAtFirstFailure.get());
+        out.printf("  dropped during run         %10d%n", sessionsDropped.sum());
+        Histogram connectLatency = connect.total();
+        out.printf("  connect p50/p99/max (ms)   %10.1f %8.1f %8.1f%n", millis(connectLatency, 50), millis(connectLatency, 99),
+                connectLatency.getMaxValue() / 1000.0);
+        out.printf("  notifications received     %10d%n", notifications.sum());
+        out.printf("  delivery acks sent         %10d%n", acksSent.sum());
+    }
+
+    private static void printHeader(PrintStream out) {
+        out.printf("  %-12s %9s %9s %9s %9s %9s %9s%n", "op", "count", "per sec", "p50 ms", "p95 ms", "p99 ms", "max ms");
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, double seconds) {
+        out.printf("  %-12s %9d %9.1f %9.1f %9.1f %9.1f %9.1f%n", name, histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds, millis(histogram, 50), millis(histogram, 95), millis(histogram, 99),
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static final class Latency {
+
+        private final Recorder recorder = new Recorder(MAX_TRACKABLE_MICROS, 3);
+        private final Histogram total = new Histogram(MAX_TRACKABLE_MICROS, 3);
+        private Histogram intervalHistogram;
+
+        void record(long nanos) {
+            recorder.recordValue(Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), MAX_TRACKABLE_MICROS));
+        }
+
+        synchronized Histogram interval() {
+            intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+            total.add(intervalHistogram);
+            return intervalHistogram;
+        }
+
+        synchronized Histogram total() {
+            interval();
+            return total;
+        }
+    }
+}
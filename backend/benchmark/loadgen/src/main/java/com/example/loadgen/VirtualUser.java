@@ -0,0 +1,146 @@
+package com.example.loadgen;
+
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One simulated account: a STOMP session subscribed to its notification queue, exactly as the web client does, and
+ * a loop of REST actions against the chat it shares with its partner.
+ * <p>
+ * Text messages carry the sender's {@link System#nanoTime()}, so the partner can measure fan-out latency, the time
+ * from the sender starting the POST to the notification arriving over STOMP. Sender and receiver live in this JVM,
+ * so no clock synchronisation is involved. Each received message is acked as delivered, as the web client does.
+ */
+final class VirtualUser {
+
+    private static final String CONTENT_PREFIX = "loadgen:";
+
+    private final UUID id;
+    private final String token;
+    private final LoadStats stats;
+    private VirtualUser partner;
+    private UUID chatId;
+    private volatile StompSession session;
+    private volatile boolean closing;
+
+    VirtualUser(UUID id, String token, LoadStats stats) {
+        this.id = id;
+        this.token = token;
+        this.stats = stats;
+    }
+
+    UUID id() {
+        return id;
+    }
+
+    String token() {
+        return token;
+    }
+
+    void pairWith(VirtualUser partner, UUID chatId) {
+        this.partner = partner;
+        this.chatId = chatId;
+    }
+
+    boolean isReady() {
+        return chatId != null && session != null && session.isConnected();
+    }
+
+    CompletableFuture<StompSession> connect(WebSocketStompClient client, String url) {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        final long start = System.nanoTime();
+        return client.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders, new Handler())
+                .whenComplete((connected, failure) -> {
+                    if (failure == null) {
+                        session = connected;
+                        stats.sessionOpened(System.nanoTime() - start);
+                    } else {
+                        stats.sessionFailed();
+                    }
+                });
+    }
+
+    void act(ApiClient api, LoadConfig config, byte[] upload) {
+        final int roll = ThreadLocalRandom.current().nextInt(config.totalWeight());
+        if (roll < config.sendWeight()) {
+            api.sendText(token, chatId, id, partner.id, CONTENT_PREFIX + System.nanoTime());
+        } else if (roll < config.sendWeight() + config.seenWeight()) {
+            api.markSeen(token, chatId);
+        } else {
+            api.upload(token, chatId, upload);
+        }
+    }
+
+    void disconnect() {
+        closing = true;
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+            stats.sessionClosed();
+        }
+    }
+
+    private void onNotification(Map<?, ?> notification) {
+        stats.notificationReceived();
+        final Object type = notification.get("notificationType");
+        if (!"MESSAGE".equals(type) && !"IMAGE".equals(type)) {
+            return;
+        }
+        if (notification.get("content") instanceof String content && content.startsWith(CONTENT_PREFIX)) {
+            stats.recordFanOut(System.nanoTime() - Long.parseLong(content.substring(CONTENT_PREFIX.length())));
+        }
+        final StompSession current = session;
+        if (current != null && notification.get("messageId") instanceof String messageId) {
+            current.send("/app/messages/delivered", Map.of("messageIds", List.of(messageId)));
+            stats.ackSent();
+        }
+    }
+
+    private final class Handler extends StompSessionHandlerAdapter {
+
+        @Override
+        public void afterConnected(@NonNull StompSession connected, @NonNull StompHeaders connectedHeaders) {
+            connected.subscribe("/user/" + id + "/chat", this);
+        }
+
+        @Override
+        @NonNull
+        public Type getPayloadType(@NonNull StompHeaders headers) {
+            return Map.class;
+        }
+
+        @Override
+        public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+            if (payload instanceof Map<?, ?> notification) {
+                onNotification(notification);
+            }
+        }
+
+        @Override
+        public void handleException(@NonNull StompSession failed, StompCommand command, @NonNull StompHeaders headers,
+                                    @NonNull byte[] payload, @NonNull Throwable exception) {
+            System.err.println("STOMP error for " + id + ": " + exception.getMessage());
+        }
+
+        @Override
+        public void handleTransportError(@NonNull StompSession failed, @NonNull Throwable exception) {
+            if (!closing && session != null && !failed.isConnected()) {
+                session = null;
+                stats.sessionLost();
+            }
+        }
+    }
+}
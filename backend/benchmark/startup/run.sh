@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Measures cold-start time of the backend in four modes and prints the median of RUNS starts for each:
+#   jar        the fat jar with the default profile (Hibernate schema update, springdoc)
+#   prod       the fat jar with the prod profile
+#   aot        the extracted jar with Spring AOT initializers (prod)
+#   aot-cache  as aot, plus the JDK AOT cache (or CDS archive) recorded at build time
+# "started" is Spring's own "Started DemoApplication in" figure, "ready" is wall time until /actuator/health/readiness
+# is UP, which includes the warm-up phase (WARM_UP_ENABLED=false to leave it out).
+#
+# Usage (from backend/, with Postgres and Keycloak up and the usual env vars exported):
+#   ./mvnw -Paot verify -DskipTests -Dstartup.benchmark.skip=false
+# or, after ./mvnw -Paot package -DskipTests:
+#   RUNS=10 benchmark/startup/run.sh
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+JAR=$(ls target/*.jar | grep -v plain | head -1)
+APP=target/application
+PORT=${SERVER_PORT:-9090}
+RUNS=${RUNS:-5}
+OUT=${OUT:-target/startup}
+mkdir -p "$OUT"
+
+if [[ -f $APP/app.aot ]]; then
+    CACHE_OPTION=-XX:AOTCache=app.aot
+elif [[ -f $APP/app.jsa ]]; then
+    CACHE_OPTION=-XX:SharedArchiveFile=app.jsa
+else
+    echo "No AOT cache in $APP, run ./mvnw -Paot package first" >&2
+    exit 1
+fi
+
+# Starts the app, waits for health and prints "<started ms> <ready ms>"
+start_once() {
+    local dir=$1 log=$2
+    shift 2
+    local begin pid
+    begin=$(date +%s%N)
+    (cd "$dir" && SERVER_PORT=$PORT exec java "$@") > "$log" 2>&1 &
+    pid=$!
+    until curl -sf "http://localhost:$PORT/actuator/health/readiness" > /dev/null; do
+        kill -0 $pid 2>/dev/null || { echo "Application exited, see $log" >&2; exit 1; }
+        sleep 0.05
+    done
+    local ready=$(( ($(date +%s%N) - begin) / 1000000 ))
+    kill $pid && wait $pid 2>/dev/null || true
+    local started
+    started=$(grep -o 'Started DemoApplication in [0-9.]* seconds' "$log" | awk '{ printf "%d", $4 * 1000 }')
+    echo "$started $ready"
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+run_mode() {
+    local mode=$1 dir=$2
+    shift 2
+    : > "$OUT/$mode.txt"
+    for i in $(seq "$RUNS"); do
+        start_once "$dir" "$OUT/$mode-$i.log" "$@" >> "$OUT/$mode.txt"
+    done
+    printf '%-10s %12s %10s\n' "$mode" "$(cut -d' ' -f1 "$OUT/$mode.txt" | median)" "$(cut -d' ' -f2 "$OUT/$mode.txt" | median)"
+}
+
+printf '%-10s %12s %10s\n' mode 'started ms' 'ready ms'
+run_mode jar . -jar "$JAR"
+run_mode prod . -Dspring.profiles.active=prod -jar "$JAR"
+run_mode aot "$APP" -Dspring.aot.enabled=true -Dspring.profiles.active=prod -jar app.jar
+run_mode aot-cache "$APP" "$CACHE_OPTION" -Dspring.aot.enabled=true -Dspring.profiles.active=prod -jar app.jar
@@ -0,0 +1,84 @@
+-- Compares random (v4) and time-ordered (v7) UUID primary keys on a messages-shaped table.
+--
+-- Usage:
+--   psql -h localhost -U whatsup_admin -d whatsupclone_db -f benchmark/uuid-insert-benchmark.sql
+--   psql ... -v rows=5000000 -v batch=1000 -f benchmark/uuid-insert-benchmark.sql
+--
+-- Reports the wall-clock time of each load (psql \timing), rows per second, and the size and
+-- leaf density of each primary-key index. All objects live in the bench_uuid schema, which is
+-- dropped at the end.
+
+\if :{?rows}
+\else
+\set rows 1000000
+\endif
+\if :{?batch}
+\else
+\set batch 1000
+\endif
+
+\set ON_ERROR_STOP on
+\timing on
+
+DROP SCHEMA IF EXISTS bench_uuid CASCADE;
+CREATE SCHEMA bench_uuid;
+CREATE EXTENSION IF NOT EXISTS pgstattuple;
+
+-- Same layout as UuidV7: 48-bit unix millis, version nibble, 12-bit counter/random, IETF variant.
+CREATE FUNCTION bench_uuid.uuid_v7() RETURNS uuid AS $$
+SELECT encode(
+    set_bit(set_bit(overlay(uuid_send(gen_random_uuid())
+                            PLACING substring(int8send((extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                            FROM 1 FOR 6), 52, 1), 53, 1), 'hex')::uuid;
+$$ LANGUAGE sql VOLATILE;
+
+CREATE TABLE bench_uuid.messages_v4 (
+    id           uuid PRIMARY KEY,
+    chat_id      uuid      NOT NULL,
+    content      text,
+    created_date timestamp NOT NULL DEFAULT now()
+);
+CREATE TABLE bench_uuid.messages_v7 (LIKE bench_uuid.messages_v4 INCLUDING ALL);
+
+-- Inserts are issued in batches of :batch rows, mirroring hibernate.jdbc.batch_size with
+-- reWriteBatchedInserts, so both runs pay the same per-statement overhead.
+CREATE PROCEDURE bench_uuid.load(target text, total int, batch int) AS $$
+DECLARE
+    id_expr text := CASE target WHEN 'messages_v4' THEN 'gen_random_uuid()' ELSE 'bench_uuid.uuid_v7()' END;
+    done    int  := 0;
+BEGIN
+    WHILE done < total LOOP
+        EXECUTE format('INSERT INTO bench_uuid.%I (id, chat_id, content) '
+                       'SELECT %s, gen_random_uuid(), repeat(''x'', 64) FROM generate_series(1, %s)',
+                       target, id_expr, least(batch, total - done));
+        done := done + batch;
+        COMMIT;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+\echo '--- random v4 keys'
+SELECT clock_timestamp() AS v4_start \gset
+CALL bench_uuid.load('messages_v4', :rows, :batch);
+SELECT round(:rows / extract(epoch FROM clock_timestamp() - :'v4_start'::timestamptz)) AS v4_rows_per_sec \gset
+
+\echo '--- time-ordered v7 keys'
+SELECT clock_timestamp() AS v7_start \gset
+CALL bench_uuid.load('messages_v7', :rows, :batch);
+SELECT round(:rows / extract(epoch FROM clock_timestamp() - :'v7_start'::timestamptz)) AS v7_rows_per_sec \gset
+
+\timing off
+
+SELECT 'v4' AS key_type,
+       :v4_rows_per_sec AS rows_per_sec,
+       pg_size_pretty(pg_relation_size('bench_uuid.messages_v4_pkey')) AS pk_index_size,
+       (pgstatindex('bench_uuid.messages_v4_pkey')).avg_leaf_density AS leaf_density_pct,
+       (pgstatindex('bench_uuid.messages_v4_pkey')).leaf_pages AS leaf_pages
+UNION ALL
+SELECT 'v7',
+       :v7_rows_per_sec,
+       pg_size_pretty(pg_relation_size('bench_uuid.messages_v7_pkey')),
+       (pgstatindex('bench_uuid.messages_v7_pkey')).avg_leaf_density,
+       (pgstatindex('bench_uuid.messages_v7_pkey')).leaf_pages;
+
+DROP SCHEMA bench_uuid CASCADE;
@@ -0,0 +1,34 @@
+// k6 workload for comparing platform-thread and virtual-thread modes.
+//
+// Mixes the chat list, message history and media upload endpoints so that request threads spend most of their
+// time blocked on JDBC and disk. See run.sh for how the two modes are started and compared.
+//
+// Env: BASE_URL, TOKEN (bearer token for a synced user), CHAT_ID (a chat that user belongs to),
+//      VUS (default 400), DURATION (default 60s), UPLOAD_KB (default 512)
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:9090';
+const CHAT_ID = __ENV.CHAT_ID;
+const HEADERS = { Authorization: `Bearer ${__ENV.TOKEN}` };
+const UPLOAD = new Uint8Array((Number(__ENV.UPLOAD_KB) || 512) * 1024).buffer;
+
+export const options = {
+    vus: Number(__ENV.VUS) || 400,
+    duration: __ENV.DURATION || '60s',
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const roll = Math.random();
+    let res;
+    if (roll < 0.5) {
+        res = http.get(`${BASE_URL}/api/v1/chats`, { headers: HEADERS, tags: { name: 'chats' } });
+    } else if (roll < 0.9) {
+        res = http.get(`${BASE_URL}/api/v1/messages/chats/${CHAT_ID}`, { headers: HEADERS, tags: { name: 'history' } });
+    } else {
+        const body = { chatId: CHAT_ID, file: http.file(UPLOAD, 'load.bin', 'application/octet-stream') };
+        res = http.post(`${BASE_URL}/api/v1/messages/upload-media`, body, { headers: HEADERS, tags: { name: 'upload' } });
+    }
+    check(res, { 'status is 2xx': (r) => r.status >= 200 && r.status < 300 });
+}
@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+# Runs load.js against the backend twice, once on Tomcat's platform-thread pool and once on virtual threads,
+# and prints the k6 summaries side by side.
+#
+# Usage (from backend/, with Postgres and Keycloak up and the usual env vars exported):
+#   mvn -q package -DskipTests
+#   TOKEN=... CHAT_ID=... benchmark/virtual-threads/run.sh
+#
+# Both runs use the same jar and the same Hikari pool, so the pool is the shared bottleneck; the interesting
+# numbers are p99 latency and throughput once concurrency exceeds Tomcat's 200 platform threads, and how many
+# jvm.threads.virtual.pinned events the virtual-thread run reports (see /actuator/metrics).
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+JAR=$(ls target/*.jar | grep -v plain | head -1)
+PORT=${SERVER_PORT:-9090}
+OUT=${OUT:-target/virtual-threads}
+mkdir -p "$OUT"
+
+run_mode() {
+    local mode=$1 enabled=$2
+    echo "==> $mode threads"
+    VIRTUAL_THREADS_ENABLED=$enabled SERVER_PORT=$PORT java -jar "$JAR" > "$OUT/$mode-app.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null' EXIT
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+    BASE_URL="http://localhost:$PORT" k6 run --quiet --summary-export "$OUT/$mode.json" \
+        benchmark/virtual-threads/load.js | tee "$OUT/$mode.txt"
+    curl -sf -H "Authorization: Bearer $TOKEN" "http://localhost:$PORT/actuator/metrics/jvm.threads.virtual.pinned" \
+        > "$OUT/$mode-pinned.json" || true
+
+    kill $pid && wait $pid 2>/dev/null || true
+    trap - EXIT
+}
+
+run_mode platform false
+run_mode virtual true
+
+printf '\n%-10s %12s %10s %10s %10s\n' mode 'req/s' p50 p95 p99
+for mode in platform virtual; do
+    jq -r --arg m "$mode" '.metrics.http_req_duration as $d | .metrics.http_reqs.rate as $r |
+        "\($m) \($r) \($d["p(50)"]) \($d["p(95)"]) \($d["p(99)"])"' "$OUT/$mode.json" |
+        awk '{ printf "%-10s %12.1f %10.1f %10.1f %10.1f\n", $1, $2, $3, $4, $5 }'
+done
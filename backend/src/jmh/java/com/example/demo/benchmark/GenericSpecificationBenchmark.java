@@ -0,0 +1,92 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Chat;
+import com.example.demo.model.FilterCriteria;
+import com.example.demo.model.FilterOperator;
+import com.example.demo.model.Message;
+import com.example.demo.model.User;
+import com.example.demo.specification.GenericSpecification;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Predicate construction for a five-filter {@link GenericSpecification} against the real entity model. The session
+ * factory is built without a database connection; only the criteria tree is built, no SQL is rendered or run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GenericSpecificationBenchmark {
+
+    private StandardServiceRegistry registry;
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder criteriaBuilder;
+    private List<FilterCriteria> filters;
+
+    @Setup
+    public void setUp() {
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DIALECT, PostgreSQLDialect.class.getName())
+                .applySetting(AvailableSettings.ALLOW_METADATA_ON_BOOT, false)
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "none")
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(User.class, Chat.class, Message.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        criteriaBuilder = sessionFactory.getCriteriaBuilder();
+
+        filters = List.of(
+                filter("content", FilterOperator.like, "hello"),
+                filter("senderId", FilterOperator.eq, UUID.randomUUID().toString()),
+                filter("receiverId", FilterOperator.ne, UUID.randomUUID().toString()),
+                filter("mediaFilePath", FilterOperator.is_null, null),
+                filter("chat.id", FilterOperator.eq, UUID.randomUUID().toString()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Benchmark
+    public Predicate withFilters() {
+        Specification<Message> specification = GenericSpecification.withFilters(filters);
+        CriteriaQuery<Message> query = criteriaBuilder.createQuery(Message.class);
+        Root<Message> root = query.from(Message.class);
+        return specification.toPredicate(root, query, criteriaBuilder);
+    }
+
+    private static FilterCriteria filter(String field, FilterOperator operator, Object value) {
+        return FilterCriteria.builder().field(field).operator(operator).value(value).build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.mapper.ChatMapper;
+import com.example.demo.mapper.MessageMapper;
+import com.example.demo.mapper.UserMapper;
+import com.example.demo.model.Chat;
+import com.example.demo.model.Message;
+import com.example.demo.model.MessageState;
+import com.example.demo.model.MessageType;
+import com.example.demo.model.User;
+import com.example.demo.projection.ChatSummaryView;
+import com.example.demo.response.ChatResponse;
+import com.example.demo.response.MessageResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response mapping on the chat list and history paths, and the JWT claims mapping run by
+ * {@code UserSynchronizeFilter} on every authenticated request. The chat list maps {@link ChatSummaryView} rows, so
+ * the benchmark builds them the way Spring Data does for a native query: a projection proxy over a map of columns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    /**
+     * Type of the chat's last message; anything but TEXT is shown as "Attachment".
+     */
+    @Param({"TEXT", "IMAGE"})
+    private String lastMessageType;
+
+    private final ChatMapper chatMapper = new ChatMapper();
+    private final MessageMapper messageMapper = new MessageMapper();
+    private final UserMapper userMapper = new UserMapper();
+
+    private ChatSummaryView chatSummary;
+    private Message message;
+    private Map<String, Object> claims;
+
+    @Setup
+    public void setUp() {
+        User sender = user("Ada", "Lovelace");
+        User receiver = user("Alan", "Turing");
+
+        Chat chat = new Chat();
+        chat.setId(UUID.randomUUID());
+        chat.setSender(sender);
+        chat.setReceiver(receiver);
+        message = message(chat, receiver, sender, MessageState.SENT);
+
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", chat.getId());
+        row.put("senderId", sender.getId());
+        row.put("receiverId", receiver.getId());
+        row.put("counterpartFirstName", receiver.getFirstName());
+        row.put("counterpartLastName", receiver.getLastName());
+        row.put("receiverLastSeen", receiver.getLastSeen());
+        row.put("lastMessageContent", message.getContent());
+        row.put("lastMessageType", lastMessageType);
+        row.put("lastMessageTime", message.getCreatedAt());
+        row.put("unreadCount", 3L);
+        chatSummary = new SpelAwareProxyProjectionFactory().createProjection(ChatSummaryView.class, row);
+
+        claims = Map.of(
+                "sub", receiver.getId().toString(),
+                "given_name", receiver.getFirstName(),
+                "family_name", receiver.getLastName(),
+                "email", receiver.getEmail(),
+                "preferred_username", "alan",
+                "roles", List.of("USER", "MODERATOR"));
+    }
+
+    @Benchmark
+    public ChatResponse chatSummaryToChatResponse() {
+        return chatMapper.toChatResponse(chatSummary);
+    }
+
+    @Benchmark
+    public MessageResponse messageToMessageResponse() {
+        return messageMapper.toMessageResponse(message);
+    }
+
+    @Benchmark
+    public User userFromTokenAttributes() {
+        return userMapper.fromTokenAttributes(claims);
+    }
+
+    private static User user(String firstName, String lastName) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmail(firstName.toLowerCase() + "@example.com");
+        user.setRoles(Set.of(User.Role.USER));
+        user.setLastSeen(LocalDateTime.now());
+        return user;
+    }
+
+    private static Message message(Chat chat, User from, User to, MessageState state) {
+        Message message = new Message();
+        message.setId(UUID.randomUUID());
+        message.setChat(chat);
+        message.setSenderId(from.getId());
+        message.setReceiverId(to.getId());
+        message.setContent("See you at the station at half past six?");
+        message.setType(MessageType.TEXT);
+        message.setState(state);
+        message.setCreatedAt(LocalDateTime.now());
+        return message;
+    }
+}
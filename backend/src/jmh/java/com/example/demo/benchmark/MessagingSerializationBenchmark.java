@@ -0,0 +1,77 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.MessageState;
+import com.example.demo.model.MessageType;
+import com.example.demo.model.Notification;
+import com.example.demo.model.NotificationType;
+import com.example.demo.response.MessageResponse;
+import com.example.demo.ws.WebSocketConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the STOMP payloads with the mapper configured in {@link WebSocketConfig}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessagingSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Notification notification;
+    private MessageResponse messageResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = WebSocketConfig.messagingObjectMapper();
+
+        notification = Notification.builder()
+                .chatId(UUID.randomUUID())
+                .messageId(UUID.randomUUID())
+                .senderId(UUID.randomUUID())
+                .receiverId(UUID.randomUUID())
+                .chatName("Ada Lovelace")
+                .content("See you at the station at half past six?")
+                .messageType(MessageType.TEXT)
+                .notificationType(NotificationType.MESSAGE)
+                .build();
+
+        messageResponse = MessageResponse.builder()
+                .messageId(UUID.randomUUID())
+                .senderId(UUID.randomUUID())
+                .receiverId(UUID.randomUUID())
+                .content("See you at the station at half past six?")
+                .type(MessageType.TEXT)
+                .state(MessageState.SENT)
+                .media(new byte[0])
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializeNotification() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(notification);
+    }
+
+    @Benchmark
+    public byte[] serializeMessageResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(messageResponse);
+    }
+}
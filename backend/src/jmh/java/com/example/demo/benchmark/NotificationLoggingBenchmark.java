@@ -0,0 +1,159 @@
+package com.example.demo.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.JsonEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.demo.config.LogSamplingTurboFilter;
+import com.example.demo.model.MessageType;
+import com.example.demo.model.Notification;
+import com.example.demo.model.NotificationType;
+import com.example.demo.util.LogSafe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging overhead per sent message in {@code NotificationService.sendNotification}, using a private logback context
+ * with a JSON encoder writing to a discarding stream, so the numbers exclude the terminal. With {@code ASYNC} the
+ * appender never blocks and drops events once its queue is full, so those results are the cost on the calling thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationLoggingBenchmark {
+
+    private static final String FORMAT = "Sending notification to user: {} with payload: {}";
+
+    @Param({"SYNC", "ASYNC"})
+    public String appender;
+
+    private LoggerContext context;
+    private Logger infoLogger;
+    private Logger debugDisabledLogger;
+    private Logger sampledLogger;
+    private UUID userId;
+    private Notification notification;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        context.start();
+
+        final LogSamplingTurboFilter sampling = new LogSamplingTurboFilter();
+        sampling.setContext(context);
+        sampling.setRates("bench.sampled=100");
+        sampling.start();
+        context.addTurboFilter(sampling);
+
+        final JsonEncoder encoder = new JsonEncoder();
+        encoder.setContext(context);
+        encoder.start();
+
+        final OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+        output.setContext(context);
+        output.setEncoder(encoder);
+        output.setOutputStream(OutputStream.nullOutputStream());
+        output.start();
+
+        Appender<ILoggingEvent> root = output;
+        if ("ASYNC".equals(appender)) {
+            final AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(output);
+            async.start();
+            root = async;
+        }
+
+        final Logger rootLogger = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.INFO);
+        rootLogger.addAppender(root);
+
+        infoLogger = context.getLogger("bench.info");
+        debugDisabledLogger = context.getLogger("bench.debug");
+        sampledLogger = context.getLogger("bench.sampled");
+
+        userId = UUID.randomUUID();
+        notification = Notification.builder()
+                .chatId(UUID.randomUUID())
+                .messageId(UUID.randomUUID())
+                .senderId(UUID.randomUUID())
+                .receiverId(userId)
+                .chatName("Ada Lovelace")
+                .content("See you at the station at half past six?")
+                .messageType(MessageType.IMAGE)
+                .notificationType(NotificationType.IMAGE)
+                .media(new byte[64 * 1024])
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void noLogging(Blackhole blackhole) {
+        blackhole.consume(notification);
+    }
+
+    /**
+     * The former call site: unconditional INFO with the notification itself as the argument.
+     */
+    @Benchmark
+    public void previousInfoLine() {
+        infoLogger.info(FORMAT, userId, notification);
+    }
+
+    /**
+     * The payload-safe summary if it were logged on every message.
+     */
+    @Benchmark
+    public void summaryAtInfo() {
+        infoLogger.info(FORMAT, userId, LogSafe.summary(notification));
+    }
+
+    /**
+     * The current call site with DEBUG disabled, the production default.
+     */
+    @Benchmark
+    public void summaryAtDebugDisabled() {
+        if (debugDisabledLogger.isDebugEnabled()) {
+            debugDisabledLogger.debug(FORMAT, userId, LogSafe.summary(notification));
+        }
+    }
+
+    /**
+     * The summary at INFO behind a one-in-100 {@link LogSamplingTurboFilter} rule.
+     */
+    @Benchmark
+    public void sampledSummaryAtInfo() {
+        sampledLogger.info(FORMAT, userId, LogSafe.summary(notification));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.annotation.PageReq;
+import com.example.demo.request.DefaultRequest;
+import com.example.demo.resolver.PageAndFilterResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Argument resolution for a paged, filtered request as it arrives from {@code GET /api/v1/chats}: pagination,
+ * sorting, two filters, a path variable and the authentication, all bound by reflection.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageAndFilterResolverBenchmark {
+
+    private PageAndFilterResolver resolver;
+    private MethodParameter parameter;
+    private NativeWebRequest webRequest;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        resolver = new PageAndFilterResolver(Jackson2ObjectMapperBuilder.json().build());
+        parameter = new MethodParameter(PageAndFilterResolverBenchmark.class.getDeclaredMethod("handler", DefaultRequest.class), 0);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/chats");
+        request.addParameter("page", "2");
+        request.addParameter("size", "20");
+        request.addParameter("sortBy", "createdAt,id");
+        request.addParameter("dir", "desc");
+        request.addParameter("filter.content:like", "hello");
+        request.addParameter("filter.senderId", UUID.randomUUID().toString());
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("chatId", UUID.randomUUID().toString()));
+        webRequest = new ServletWebRequest(request);
+
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(UUID.randomUUID().toString(), null, "ROLE_USER"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object resolveArgument() throws Exception {
+        return resolver.resolveArgument(parameter, null, webRequest, null);
+    }
+
+    @SuppressWarnings("unused")
+    private static void handler(@PageReq DefaultRequest request) {
+    }
+}
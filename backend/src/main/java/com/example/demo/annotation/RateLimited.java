@@ -0,0 +1,15 @@
+package com.example.demo.annotation;
+
+import com.example.demo.model.RateLimitClass;
+
+import java.lang.annotation.*;
+
+/**
+ * Limits how often one user may call the annotated handler. All handlers of the same class share a bucket per user.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimited {
+    RateLimitClass value();
+}
@@ -0,0 +1,16 @@
+package com.example.demo.annotation;
+
+import com.example.demo.util.UuidV7Generator;
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a {@link java.util.UUID} identifier that is assigned a time-ordered (version 7) UUID on insert.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface UuidV7Id {
+}
@@ -0,0 +1,200 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.ChatActivityEvent;
+import com.example.demo.event.UserPresenceChangedEvent;
+import com.example.demo.event.UserProfileChangedEvent;
+import com.example.demo.mapper.ChatMapper;
+import com.example.demo.repository.ChatRepository;
+import com.example.demo.response.ChatResponse;
+import com.example.demo.service.ChatVersionTracker;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Per-user cache of computed chat list pages.
+ * <p>
+ * Every entry is stamped with the user's chat list version from {@link ChatVersionTracker} and is only served while
+ * that version is current. Events bump the version and patch the entry inside the same {@code compute} on the user's
+ * key, and a page loaded from the database is only stored if the version did not move while it was loading, so an
+ * entry never misses a change. Changes that cannot be applied in place (a new chat, a message in a chat outside the
+ * first page) drop the entry instead.
+ * <p>
+ * Memory is bounded by the total number of cached rows. Online flags go stale only by time passing, so entries also
+ * expire a fixed time after they were first loaded, however often they are patched.
+ */
+@Slf4j
+@Component
+public class ChatListCache {
+
+    private static final String CACHE_NAME = "chatList";
+
+    private final ChatVersionTracker versionTracker;
+    private final ChatRepository chatRepository;
+    private final ChatMapper chatMapper;
+    private final Cache<UUID, Entry> cache;
+
+    public ChatListCache(ChatVersionTracker versionTracker,
+                         ChatRepository chatRepository,
+                         ChatMapper chatMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${application.chat-list-cache.max-rows:1000000}") long maxRows,
+                         @Value("${application.chat-list-cache.ttl:1m}") Duration ttl) {
+        this.versionTracker = versionTracker;
+        this.chatRepository = chatRepository;
+        this.chatMapper = chatMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .<UUID, Entry>weigher((userId, entry) -> entry.rows())
+                .expireAfter(Expiry.<UUID, Entry>creating((userId, entry) -> ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public List<ChatResponse> get(UUID userId, Pageable pageable, Supplier<List<ChatResponse>> loader) {
+        final PageKey key = new PageKey(pageable.getPageNumber(), pageable.getPageSize());
+        final long version = versionTracker.chatListVersion(userId);
+
+        Entry entry = cache.getIfPresent(userId);
+        if (entry != null && entry.version() == version) {
+            List<ChatResponse> page = entry.pages().get(key);
+            if (page != null) {
+                return page;
+            }
+        }
+
+        List<ChatResponse> page = List.copyOf(loader.get());
+        cache.asMap().compute(userId, (id, current) -> {
+            if (versionTracker.chatListVersion(id) != version) {
+                return current;
+            }
+            return current != null && current.version() == version ? current.with(key, page) : Entry.of(version, key, page);
+        });
+        return page;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChatActivity(ChatActivityEvent event) {
+        update(event.senderId(), entry -> patch(entry, event, event.senderId()));
+        update(event.receiverId(), entry -> patch(entry, event, event.receiverId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserPresenceChanged(UserPresenceChangedEvent event) {
+        Set<UUID> viewers = new HashSet<>(chatRepository.findCounterpartIds(event.userId()));
+        viewers.add(event.userId());
+        for (UUID viewer : viewers) {
+            update(viewer, entry -> entry.mapRows(chat -> event.userId().equals(chat.getReceiverId()) && !chat.isReceiverOnline()
+                    ? chat.toBuilder().isReceiverOnline(true).build()
+                    : chat));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        // Names show up in every counterpart's list; renames are rare enough to start over
+        cache.invalidateAll();
+    }
+
+    /**
+     * Bumps the user's chat list version and applies {@code patch} to the cached entry under the key's lock. An entry
+     * that was already stale before this change is dropped rather than patched.
+     */
+    private void update(UUID userId, Function<Entry, Entry> patch) {
+        cache.asMap().compute(userId, (id, entry) -> {
+            final long before = versionTracker.chatListVersion(id);
+            versionTracker.bumpChatListVersion(id);
+            if (entry == null || entry.version() != before) {
+                return null;
+            }
+            Entry patched = patch.apply(entry);
+            return patched == null ? null : patched.withVersion(versionTracker.chatListVersion(id));
+        });
+    }
+
+    private Entry patch(Entry entry, ChatActivityEvent event, UUID viewerId) {
+        final String chatId = event.chatId().toString();
+        return switch (event.kind()) {
+            case CREATED -> null;
+            case SEEN -> entry.mapRows(chat -> chatId.equals(chat.getId()) ? chat.toBuilder().unreadCount(0L).build() : chat);
+            case MESSAGE -> moveToTop(entry, chatId, chat -> chat.toBuilder()
+                    .lastMessage(chatMapper.toLastMessage(event.message().getType(), event.message().getContent()))
+                    .lastMessageTime(event.message().getCreatedAt())
+                    .unreadCount(viewerId.equals(event.message().getReceiverId()) ? chat.getUnreadCount() + 1 : chat.getUnreadCount())
+                    .build());
+        };
+    }
+
+    /**
+     * A new message moves its chat to the top of the first page and shifts every other page, so only first pages
+     * that already contain the chat survive.
+     */
+    private Entry moveToTop(Entry entry, String chatId, Function<ChatResponse, ChatResponse> update) {
+        Map<PageKey, List<ChatResponse>> pages = new HashMap<>();
+        entry.pages().forEach((key, rows) -> {
+            if (key.page() != 0) {
+                return;
+            }
+            for (int i = 0; i < rows.size(); i++) {
+                if (chatId.equals(rows.get(i).getId())) {
+                    List<ChatResponse> reordered = new ArrayList<>(rows.size());
+                    reordered.add(update.apply(rows.get(i)));
+                    reordered.addAll(rows.subList(0, i));
+                    reordered.addAll(rows.subList(i + 1, rows.size()));
+                    pages.put(key, List.copyOf(reordered));
+                    return;
+                }
+            }
+        });
+        return pages.isEmpty() ? null : new Entry(entry.version(), Map.copyOf(pages));
+    }
+
+    private record PageKey(int page, int size) {
+    }
+
+    private record Entry(long version, Map<PageKey, List<ChatResponse>> pages) {
+
+        static Entry of(long version, PageKey key, List<ChatResponse> rows) {
+            return new Entry(version, Map.of(key, rows));
+        }
+
+        Entry with(PageKey key, List<ChatResponse> rows) {
+            Map<PageKey, List<ChatResponse>> copy = new HashMap<>(pages);
+            copy.put(key, rows);
+            return new Entry(version, Map.copyOf(copy));
+        }
+
+        Entry withVersion(long newVersion) {
+            return new Entry(newVersion, pages);
+        }
+
+        Entry mapRows(Function<ChatResponse, ChatResponse> update) {
+            Map<PageKey, List<ChatResponse>> copy = new HashMap<>();
+            pages.forEach((key, rows) -> copy.put(key, rows.stream().map(update).toList()));
+            return new Entry(version, Map.copyOf(copy));
+        }
+
+        int rows() {
+            return 1 + pages.values().stream().mapToInt(List::size).sum();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.demo.cache;
+
+import com.example.demo.response.MessageResponse;
+import com.example.demo.service.ChatVersionTracker;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+
+/**
+ * Speculatively loads the next history page after a page is served, so that scrolling back through a chat finds the
+ * page already in memory.
+ * <p>
+ * Prefetched pages are keyed by chat, page request and chat history version: a new message shifts every offset page,
+ * and bumping the version makes the old prefetches unreachable. Unused pages expire after a few seconds. Each
+ * prefetch ends as {@code used} (a request took it), {@code wasted} (it expired, was evicted or went stale) or
+ * {@code skipped} (no budget), counted in {@code chat.history.prefetch}.
+ * <p>
+ * Prefetching is best effort and must never add load when the system is busy: at most {@code max-in-flight} prefetches
+ * run at once, and none start while requests are waiting for a database connection.
+ */
+@Slf4j
+@Component
+public class HistoryPrefetcher {
+
+    private static final String METRIC_NAME = "chat.history.prefetch";
+
+    private final ChatVersionTracker versionTracker;
+    private final TaskExecutor taskExecutor;
+    private final HikariPoolMXBean connectionPool;
+    private final int minPage;
+    private final Semaphore budget;
+    private final Cache<PrefetchKey, Page<MessageResponse>> prefetched;
+
+    private final Counter used;
+    private final Counter wasted;
+    private final Counter skipped;
+
+    public HistoryPrefetcher(ChatVersionTracker versionTracker,
+                             @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                             DataSource dataSource,
+                             MeterRegistry meterRegistry,
+                             @Value("${application.history-prefetch.min-page:1}") int minPage,
+                             @Value("${application.history-prefetch.max-in-flight:8}") int maxInFlight,
+                             @Value("${application.history-prefetch.max-size:32MB}") DataSize maxSize,
+                             @Value("${application.history-prefetch.ttl:15s}") Duration ttl) {
+        this.versionTracker = versionTracker;
+        this.taskExecutor = taskExecutor;
+        this.connectionPool = dataSource instanceof HikariDataSource hikari ? hikari.getHikariPoolMXBean() : null;
+        this.minPage = minPage;
+        this.budget = new Semaphore(maxInFlight);
+
+        this.used = outcomeCounter(meterRegistry, "used");
+        this.wasted = outcomeCounter(meterRegistry, "wasted");
+        this.skipped = outcomeCounter(meterRegistry, "skipped");
+        Gauge.builder(METRIC_NAME + ".in.flight", budget, semaphore -> maxInFlight - semaphore.availablePermits())
+                .description("History prefetches currently loading")
+                .register(meterRegistry);
+
+        this.prefetched = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<PrefetchKey, Page<MessageResponse>>weigher((key, page) -> MessageWeigher.weigh(page.getContent()))
+                .expireAfterWrite(ttl)
+                .removalListener((PrefetchKey key, Page<MessageResponse> page, RemovalCause cause) -> {
+                    if (cause != RemovalCause.EXPLICIT) {
+                        wasted.increment();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Takes the prefetched page for this request, if there is one for the chat's current version.
+     */
+    public Optional<Page<MessageResponse>> take(UUID chatId, Pageable pageable) {
+        Page<MessageResponse> page = prefetched.asMap().remove(new PrefetchKey(chatId, pageable, versionTracker.chatHistoryVersion(chatId)));
+        if (page != null) {
+            used.increment();
+        }
+        return Optional.ofNullable(page);
+    }
+
+    /**
+     * Starts loading the page after {@code served} in the background when the user is paging back and the budget
+     * allows it.
+     */
+    public void prefetchNext(UUID chatId, Page<MessageResponse> served, BiFunction<UUID, Pageable, Page<MessageResponse>> loader) {
+        if (served.getNumber() < minPage || !served.hasNext()) {
+            return;
+        }
+        final Pageable next = served.nextPageable();
+        final PrefetchKey key = new PrefetchKey(chatId, next, versionTracker.chatHistoryVersion(chatId));
+        if (prefetched.asMap().containsKey(key)) {
+            return;
+        }
+        if (isPoolSaturated() || !budget.tryAcquire()) {
+            skipped.increment();
+            return;
+        }
+
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    prefetched.put(key, loader.apply(chatId, next));
+                } catch (RuntimeException e) {
+                    log.debug("Prefetch of chat {} page {} failed", chatId, next.getPageNumber(), e);
+                } finally {
+                    budget.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            budget.release();
+            skipped.increment();
+        }
+    }
+
+    private boolean isPoolSaturated() {
+        return connectionPool != null && connectionPool.getThreadsAwaitingConnection() > 0;
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(METRIC_NAME)
+                .description("Speculative history page loads by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record PrefetchKey(UUID chatId, Pageable pageable, long version) {
+    }
+}
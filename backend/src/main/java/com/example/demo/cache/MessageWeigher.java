@@ -0,0 +1,27 @@
+package com.example.demo.cache;
+
+import com.example.demo.response.MessageResponse;
+
+import java.util.Collection;
+
+/**
+ * Approximate heap size of cached message responses, for the Caffeine weighers of the history caches. Media is held
+ * inline and uploads go up to 100MB, so the sum is kept in a {@code long} and saturates at {@link Integer#MAX_VALUE}.
+ */
+final class MessageWeigher {
+
+    private static final int MESSAGE_OVERHEAD_BYTES = 160;
+
+    private MessageWeigher() {
+    }
+
+    static int weigh(Collection<MessageResponse> messages) {
+        long bytes = MESSAGE_OVERHEAD_BYTES;
+        for (MessageResponse message : messages) {
+            bytes += MESSAGE_OVERHEAD_BYTES;
+            bytes += message.getContent() == null ? 0 : message.getContent().length() * 2L;
+            bytes += message.getMedia() == null ? 0 : message.getMedia().length;
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.ChatActivityEvent;
+import com.example.demo.event.MessagesDeliveredEvent;
+import com.example.demo.mapper.MessageMapper;
+import com.example.demo.model.MessageState;
+import com.example.demo.response.MessageResponse;
+import com.example.demo.service.ChatVersionTracker;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Hot-chat read model: the newest messages of recently read chats, kept so that opening a chat does not query
+ * Postgres for its first history page.
+ * <p>
+ * A chat's buffer is seeded by the first cold read of its first page and then filled write-through from message
+ * events, dropping the oldest message once {@code capacity} is reached. A buffer only ever holds an unbroken run of
+ * the newest messages plus the chat's total message count, so any first page that fits in it can be answered exactly.
+ * Like {@link ChatListCache}, buffers are stamped with the chat history version and patched under the chat's key
+ * lock, and a seed that raced with a new message is discarded.
+ * <p>
+ * Buffers of chats that have not been read for a while expire, and the total size of all buffers, media included,
+ * is capped.
+ */
+@Component
+public class RecentMessageBuffer {
+
+    private static final String CACHE_NAME = "recentMessages";
+
+    private final ChatVersionTracker versionTracker;
+    private final MessageMapper messageMapper;
+    private final int capacity;
+    private final Cache<UUID, Buffer> buffers;
+
+    public RecentMessageBuffer(ChatVersionTracker versionTracker,
+                               MessageMapper messageMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${application.recent-messages.capacity:50}") int capacity,
+                               @Value("${application.recent-messages.max-size:64MB}") DataSize maxSize,
+                               @Value("${application.recent-messages.expire-after-access:15m}") Duration expireAfterAccess) {
+        this.versionTracker = versionTracker;
+        this.messageMapper = messageMapper;
+        this.capacity = capacity;
+        this.buffers = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<UUID, Buffer>weigher((chatId, buffer) -> buffer.weight())
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buffers, CACHE_NAME);
+    }
+
+    /**
+     * Returns the requested history page from the chat's buffer when it is the first page and the buffer covers it,
+     * otherwise loads it and, for a first page, seeds the buffer with the result.
+     */
+    public Page<MessageResponse> getPage(UUID chatId, Pageable pageable, Supplier<Page<MessageResponse>> loader) {
+        if (pageable.getPageNumber() != 0 || pageable.getPageSize() > capacity) {
+            return loader.get();
+        }
+
+        final long version = versionTracker.chatHistoryVersion(chatId);
+        Buffer buffer = buffers.getIfPresent(chatId);
+        if (buffer != null && buffer.version() == version && buffer.covers(pageable.getPageSize())) {
+            List<MessageResponse> newest = buffer.newestFirst();
+            return new PageImpl<>(newest.subList(0, Math.min(pageable.getPageSize(), newest.size())), pageable, buffer.total());
+        }
+
+        Page<MessageResponse> page = loader.get();
+        buffers.asMap().compute(chatId, (id, current) -> {
+            if (versionTracker.chatHistoryVersion(id) != version) {
+                return current;
+            }
+            if (current != null && current.version() == version && current.newestFirst().size() >= page.getNumberOfElements()) {
+                return current;
+            }
+            return new Buffer(version, List.copyOf(page.getContent()), page.getTotalElements());
+        });
+        return page;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessagesDelivered(MessagesDeliveredEvent event) {
+        final Set<UUID> messageIds = Set.copyOf(event.messageIds());
+        buffers.asMap().compute(event.chatId(), (id, buffer) -> {
+            final long before = versionTracker.chatHistoryVersion(id);
+            final long after = versionTracker.bumpChatHistoryVersion(id);
+            if (buffer == null || buffer.version() != before) {
+                return null;
+            }
+            return buffer.withState(message -> messageIds.contains(message.getMessageId()) && message.getState() == MessageState.SENT,
+                    MessageState.DELIVERED, after);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChatActivity(ChatActivityEvent event) {
+        // Mapping reads the media file from disk, so it runs before the key is locked and only for buffered chats
+        final MessageResponse appended = event.kind() == ChatActivityEvent.Kind.MESSAGE && buffers.asMap().containsKey(event.chatId())
+                ? messageMapper.toMessageResponse(event.message())
+                : null;
+        buffers.asMap().compute(event.chatId(), (id, buffer) -> {
+            final long before = versionTracker.chatHistoryVersion(id);
+            final long after = versionTracker.bumpChatHistoryVersion(id);
+            if (buffer == null || buffer.version() != before) {
+                return null;
+            }
+            return switch (event.kind()) {
+                case CREATED -> buffer.withVersion(after);
+                case MESSAGE -> appended == null ? null : buffer.append(appended, after, capacity);
+                case SEEN -> buffer.withState(message -> message.getState() != MessageState.SEEN, MessageState.SEEN, after);
+            };
+        });
+    }
+
+    private record Buffer(long version, List<MessageResponse> newestFirst, long total) {
+
+        boolean covers(int pageSize) {
+            return newestFirst.size() >= pageSize || newestFirst.size() == total;
+        }
+
+        Buffer withVersion(long newVersion) {
+            return new Buffer(newVersion, newestFirst, total);
+        }
+
+        Buffer append(MessageResponse message, long newVersion, int capacity) {
+            List<MessageResponse> messages = new ArrayList<>(Math.min(newestFirst.size() + 1, capacity));
+            messages.add(message);
+            messages.addAll(newestFirst.subList(0, Math.min(newestFirst.size(), capacity - 1)));
+            return new Buffer(newVersion, List.copyOf(messages), total + 1);
+        }
+
+        Buffer withState(Predicate<MessageResponse> matches, MessageState state, long newVersion) {
+            List<MessageResponse> messages = newestFirst.stream()
+                    .map(message -> matches.test(message) ? withState(message, state) : message)
+                    .toList();
+            return new Buffer(newVersion, messages, total);
+        }
+
+        private static MessageResponse withState(MessageResponse message, MessageState state) {
+            return MessageResponse.builder()
+                    .messageId(message.getMessageId())
+                    .content(message.getContent())
+                    .type(message.getType())
+                    .state(state)
+                    .media(message.getMedia())
+                    .senderId(message.getSenderId())
+                    .receiverId(message.getReceiverId())
+                    .createdAt(message.getCreatedAt())
+                    .build();
+        }
+
+        int weight() {
+            return MessageWeigher.weigh(newestFirst);
+        }
+    }
+}
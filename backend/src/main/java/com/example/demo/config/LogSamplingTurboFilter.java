@@ -0,0 +1,85 @@
+package com.example.demo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that keeps only one in N events from hot-path loggers, configured in logback-spring.xml from
+ * {@code application.logging.sampling} as {@code logger.name=N,other.logger=M}. A rule applies to the named logger
+ * and its children, the most specific rule wins. Events above {@code maxLevel} (INFO by default) are never sampled,
+ * so warnings and errors always get through.
+ */
+public class LogSamplingTurboFilter extends TurboFilter {
+
+    private static final Sampler UNSAMPLED = new Sampler(1);
+
+    private final List<Map.Entry<String, Integer>> rules = new ArrayList<>();
+    private final Map<String, Sampler> samplers = new ConcurrentHashMap<>();
+    private Level maxLevel = Level.INFO;
+
+    public void setRates(String rates) {
+        rules.clear();
+        samplers.clear();
+        if (rates == null || rates.isBlank()) {
+            return;
+        }
+        for (String rule : rates.split(",")) {
+            final int eq = rule.indexOf('=');
+            if (eq <= 0) {
+                addWarn("Ignoring sampling rule without '=': " + rule);
+                continue;
+            }
+            rules.add(Map.entry(rule.substring(0, eq).trim(), Math.max(Integer.parseInt(rule.substring(eq + 1).trim()), 1)));
+        }
+        rules.sort(Comparator.comparingInt((Map.Entry<String, Integer> entry) -> entry.getKey().length()).reversed());
+    }
+
+    public void setMaxLevel(String maxLevel) {
+        this.maxLevel = Level.toLevel(maxLevel, Level.INFO);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks, which must not consume a sample
+        if (format == null || level == null || !isStarted() || level.toInt() > maxLevel.toInt()
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        final Sampler sampler = samplers.computeIfAbsent(logger.getName(), this::samplerFor);
+        return sampler == UNSAMPLED || sampler.keep() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private Sampler samplerFor(String loggerName) {
+        for (Map.Entry<String, Integer> rule : rules) {
+            final String prefix = rule.getKey();
+            if (loggerName.equals(prefix) || loggerName.startsWith(prefix) && loggerName.charAt(prefix.length()) == '.') {
+                return rule.getValue() == 1 ? UNSAMPLED : new Sampler(rule.getValue());
+            }
+        }
+        return UNSAMPLED;
+    }
+
+    private static final class Sampler {
+
+        private final int oneIn;
+        private final AtomicLong events = new AtomicLong();
+
+        Sampler(int oneIn) {
+            this.oneIn = oneIn;
+        }
+
+        boolean keep() {
+            return events.getAndIncrement() % oneIn == 0;
+        }
+    }
+}
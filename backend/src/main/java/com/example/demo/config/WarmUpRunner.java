@@ -0,0 +1,316 @@
+package com.example.demo.config;
+
+import com.example.demo.constant.CommonConstant;
+import com.example.demo.mapper.ChatMapper;
+import com.example.demo.mapper.MessageMapper;
+import com.example.demo.mapper.UserMapper;
+import com.example.demo.model.Chat;
+import com.example.demo.model.DirectoryCursor;
+import com.example.demo.model.Message;
+import com.example.demo.model.MessageState;
+import com.example.demo.model.MessageType;
+import com.example.demo.model.Notification;
+import com.example.demo.model.NotificationType;
+import com.example.demo.model.User;
+import com.example.demo.repository.ChatRepository;
+import com.example.demo.repository.MessageRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.request.ChatRequest;
+import com.example.demo.request.MessageRequest;
+import com.example.demo.resolver.PageAndFilterResolver;
+import com.example.demo.response.ChatResponse;
+import com.example.demo.response.MessageResponse;
+import com.example.demo.util.UuidV7;
+import com.example.demo.ws.WebSocketConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Runs the request hot paths with synthetic data before the application reports ready, so that the first real
+ * requests after a deploy hit JIT-compiled code: argument resolution in {@link PageAndFilterResolver}, the Hibernate
+ * inserts and the chat list, history, bootstrap, directory, search and state-update queries, the mappers, and Jackson
+ * serialization with both the MVC and the STOMP object mapper.
+ * <p>
+ * Every round writes two users, a chat and a page of messages and reads them back inside one transaction that is
+ * always rolled back, so nothing is committed, no application events are delivered and no caches are populated.
+ * <p>
+ * Spring Boot flips readiness to {@code ACCEPTING_TRAFFIC} only once all runners have returned, so
+ * {@code /actuator/health/readiness} stays {@code OUT_OF_SERVICE} until the configured number of rounds has run or
+ * the time budget is spent, whichever comes first. Liveness is unaffected.
+ * <p>
+ * {@code application.warm-up.enabled} is read at startup rather than through a condition, so it can still be switched
+ * off for an AOT-processed build.
+ */
+@Slf4j
+@Component
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final int MESSAGES_PER_ROUND = 30;
+    private static final int REQUESTS_PER_ROUND = 20;
+
+    private final UserRepository userRepository;
+    private final ChatRepository chatRepository;
+    private final MessageRepository messageRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final PageAndFilterResolver resolver;
+    private final ChatMapper chatMapper;
+    private final MessageMapper messageMapper;
+    private final UserMapper userMapper;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper messagingObjectMapper;
+    private final MethodParameter chatRequestParameter;
+    private final MethodParameter messageRequestParameter;
+    private final boolean enabled;
+    private final int rounds;
+    private final Duration budget;
+
+    private volatile boolean stopped;
+
+    public WarmUpRunner(UserRepository userRepository,
+                        ChatRepository chatRepository,
+                        MessageRepository messageRepository,
+                        EntityManager entityManager,
+                        PlatformTransactionManager transactionManager,
+                        PageAndFilterResolver resolver,
+                        ChatMapper chatMapper,
+                        MessageMapper messageMapper,
+                        UserMapper userMapper,
+                        ObjectMapper objectMapper,
+                        @Value("${application.warm-up.enabled:false}") boolean enabled,
+                        @Value("${application.warm-up.rounds:300}") int rounds,
+                        @Value("${application.warm-up.budget:60s}") Duration budget) throws NoSuchMethodException {
+        this.userRepository = userRepository;
+        this.chatRepository = chatRepository;
+        this.messageRepository = messageRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.resolver = resolver;
+        this.chatMapper = chatMapper;
+        this.messageMapper = messageMapper;
+        this.userMapper = userMapper;
+        this.objectMapper = objectMapper;
+        this.messagingObjectMapper = WebSocketConfig.messagingObjectMapper();
+        this.chatRequestParameter = new MethodParameter(WarmUpRunner.class.getDeclaredMethod("chats", ChatRequest.class), 0);
+        this.messageRequestParameter = new MethodParameter(WarmUpRunner.class.getDeclaredMethod("messages", MessageRequest.class), 0);
+        this.enabled = enabled;
+        this.rounds = rounds;
+        this.budget = budget;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        final long start = System.nanoTime();
+        final AtomicInteger completed = new AtomicInteger();
+        final Thread worker = Thread.ofPlatform().name("warm-up").start(() -> {
+            for (int i = 0; i < rounds && !stopped; i++) {
+                try {
+                    round();
+                    completed.incrementAndGet();
+                } catch (Exception e) {
+                    if (completed.get() == 0) {
+                        // Failing before any round completed points at a broken code path rather than a transient error
+                        log.error("First warm-up round failed, skipping warm-up", e);
+                    } else {
+                        log.warn("Warm-up round failed, stopping warm-up", e);
+                    }
+                    return;
+                }
+            }
+        });
+
+        final boolean finished = worker.join(budget);
+        stopped = true;
+        if (!finished) {
+            // Let the current round roll back before traffic arrives; it never takes more than a few queries
+            worker.join(Duration.ofSeconds(5));
+        }
+        log.info("Warm-up {} after {} of {} rounds in {} ms", finished ? "finished" : "ran out of time", completed.get(),
+                rounds, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void round() {
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            try {
+                exercise();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private void exercise() throws Exception {
+        final User sender = userRepository.save(syntheticUser("Ada", "Lovelace"));
+        final User receiver = userRepository.save(syntheticUser("Alan", "Turing"));
+        final UUID chatId = chatRepository.upsertChat(UuidV7.randomUUID(), sender.getId(), receiver.getId(), LocalDateTime.now())
+                .orElseThrow();
+        final Chat chat = chatRepository.getReferenceById(chatId);
+
+        final List<Message> messages = new ArrayList<>(MESSAGES_PER_ROUND);
+        for (int i = 0; i < MESSAGES_PER_ROUND; i++) {
+            final Message message = new Message();
+            message.setContent("Warm-up message " + i);
+            message.setSenderId(i % 2 == 0 ? sender.getId() : receiver.getId());
+            message.setReceiverId(i % 2 == 0 ? receiver.getId() : sender.getId());
+            message.setChat(chat);
+            message.setType(MessageType.TEXT);
+            message.setState(MessageState.SENT);
+            messages.add(message);
+        }
+        messageRepository.saveAll(messages);
+        entityManager.flush();
+        entityManager.clear();
+
+        final JwtAuthenticationToken authentication = authentication(sender);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        try {
+            for (int i = 0; i < REQUESTS_PER_ROUND; i++) {
+                resolver.resolveArgument(chatRequestParameter, null, webRequest(sender, Map.of(), Map.of(
+                        "page", "0", "size", "20")), null);
+                resolver.resolveArgument(messageRequestParameter, null, webRequest(sender, Map.of("chatId", chatId.toString()), Map.of(
+                        "page", String.valueOf(i % 3), "size", "50", "sortBy", "createdAt", "dir", "desc",
+                        "filter.content:like", "message")), null);
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        final List<ChatResponse> chats = chatRepository.findChatSummaries(sender.getId(), 20, 0).stream()
+                .map(chatMapper::toChatResponse).toList();
+        final Page<MessageResponse> history = messageRepository
+                .findAllByChatIdOrderByCreatedAtDesc(chatId, PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "createdAt")))
+                .map(messageMapper::toMessageResponse);
+        final List<MessageResponse> recent;
+        try (Stream<Message> stream = messageRepository.streamRecentMessages(List.of(chatId), 50)) {
+            recent = stream.map(messageMapper::toMessageResponse).toList();
+        }
+        userRepository.findDirectoryPage(sender.getId(), "a%", DirectoryCursor.START.firstName(),
+                DirectoryCursor.START.lastName(), DirectoryCursor.START.id(), 21).forEach(userMapper::toUserResponse);
+        messageRepository.searchForUser(sender.getId(), "message", PageRequest.of(0, 20));
+
+        final List<UUID> ids = messages.stream().map(Message::getId).toList();
+        messageRepository.markDelivered(receiver.getId(), ids.subList(0, ids.size() / 2), LocalDateTime.now());
+        messageRepository.setMessageToSeenByChatId(chatId, MessageState.SEEN);
+
+        objectMapper.writeValueAsBytes(chats);
+        objectMapper.writeValueAsBytes(history);
+        objectMapper.writeValueAsBytes(recent);
+        for (MessageResponse response : recent) {
+            messagingObjectMapper.writeValueAsBytes(Notification.builder()
+                    .chatId(chatId)
+                    .messageId(response.getMessageId())
+                    .senderId(sender.getId())
+                    .receiverId(receiver.getId())
+                    .chatName("Ada Lovelace")
+                    .content(response.getContent())
+                    .messageType(MessageType.TEXT)
+                    .notificationType(NotificationType.MESSAGE)
+                    .build());
+        }
+    }
+
+    private static User syntheticUser(String firstName, String lastName) {
+        final User user = new User();
+        user.setId(UuidV7.randomUUID());
+        user.setEmail("warm-up-" + user.getId() + "@warm-up.invalid");
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setKeycloakId("warm-up-" + user.getId());
+        user.setRoles(Set.of(User.Role.USER));
+        user.setIsActive(true);
+        user.setLastSeen(LocalDateTime.now());
+        return user;
+    }
+
+    private static JwtAuthenticationToken authentication(User user) {
+        final Jwt jwt = Jwt.withTokenValue("warm-up")
+                .header("alg", "none")
+                .subject(user.getId().toString())
+                .claim("email", user.getEmail())
+                .build();
+        return new JwtAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority("ROLE_USER")), jwt.getSubject());
+    }
+
+    /**
+     * A GET request carrying only what the resolver reads: query parameters, path variables and the user set by
+     * {@code UserSynchronizeFilter}.
+     */
+    private static NativeWebRequest webRequest(User user, Map<String, String> pathVariables, Map<String, String> parameters) {
+        final Map<String, String[]> parameterMap = new LinkedHashMap<>();
+        parameters.forEach((name, value) -> parameterMap.put(name, new String[]{value}));
+        final Map<String, Object> attributes = Map.of(
+                CommonConstant.AUTHENTICATED_USER, user,
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, pathVariables);
+
+        final HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(WarmUpRunner.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getMethod" -> "GET";
+                    case "getParameter" -> parameters.get((String) args[0]);
+                    case "getParameterValues" -> parameterMap.get((String) args[0]);
+                    case "getParameterMap" -> parameterMap;
+                    case "getParameterNames" -> Collections.enumeration(parameterMap.keySet());
+                    case "getAttribute" -> attributes.get((String) args[0]);
+                    case "getContentLength" -> -1;
+                    case "getContentLengthLong" -> -1L;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "WarmUpRequest";
+                    default -> defaultValue(method.getReturnType());
+                });
+        return new ServletWebRequest(request);
+    }
+
+    /**
+     * Null, or the zero value for a primitive type, so that unanswered getters such as {@code getDateHeader} don't
+     * fail unboxing a null.
+     */
+    private static Object defaultValue(Class<?> type) {
+        return type.isPrimitive() && type != void.class ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+
+    @SuppressWarnings("unused")
+    private static void chats(ChatRequest request) {
+    }
+
+    @SuppressWarnings("unused")
+    private static void messages(MessageRequest request) {
+    }
+}
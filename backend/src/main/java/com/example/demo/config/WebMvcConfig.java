@@ -1,9 +1,11 @@
 package com.example.demo.config;
 
+import com.example.demo.intercepter.RateLimitInterceptor;
 import com.example.demo.resolver.PageAndFilterResolver;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.List;
@@ -13,10 +15,16 @@ import java.util.List;
 public class WebMvcConfig implements WebMvcConfigurer {
 
     private final PageAndFilterResolver pageAndFilterResolver;
+    private final RateLimitInterceptor rateLimitInterceptor;
 
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
         resolvers.add(pageAndFilterResolver);
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor);
+    }
+
 }
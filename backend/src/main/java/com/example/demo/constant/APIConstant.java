@@ -11,10 +11,13 @@ public class APIConstant {
     public static final String API_V_1_CHATS = "/api/v1/chats";
     public static final String API_V_1_MESSAGES = "/api/v1/messages";
     public static final String API_V_1_USERS = "/api/v1/users";
+    public static final String BOOTSTRAP = "/bootstrap";
     public static final String CHAT_ID_PATH = "/{chatId}";
     public static final String CHATS = "/chats";
+    public static final String DIRECTORY = "/directory";
     public static final String EMAIL = "/email";
     public static final String EMAIL_PATH = "/{email}";
+    public static final String EXPORT = "/export";
     public static final String ID_PATH = "/{id}";
     public static final String ROLE = "/role";
     public static final String ROLE_PATH = "/{role}";
@@ -6,6 +6,13 @@ public class CommonConstant {
     public static final int DEFAULT_PAGE = 0;
     public static final int DEFAULT_SIZE = 20;
     public static final int MAX_SIZE = 1000;
+    public static final int DIRECTORY_MAX_SIZE = 100;
+    public static final int SEARCH_DEFAULT_RESULTS = 20;
+    public static final int BOOTSTRAP_DEFAULT_CHATS = 20;
+    public static final int BOOTSTRAP_MAX_CHATS = 50;
+    public static final int BOOTSTRAP_DEFAULT_MESSAGES = 20;
+    public static final int BOOTSTRAP_MAX_MESSAGES = 100;
+    public static final int SEARCH_MAX_RESULTS = 100;
     public static final String DEFAULT_OPERATOR = "eq";
     public static final String DEFAULT_SORT_DIRECTION = "asc";
     public static final String DEFAULT_SORT_FIELD = "id";
@@ -1,15 +1,24 @@
 package com.example.demo.controller;
 
+import com.example.demo.annotation.RateLimited;
 import com.example.demo.constant.APIConstant;
+import com.example.demo.constant.CommonConstant;
+import com.example.demo.model.RateLimitClass;
 import com.example.demo.request.ChatRequest;
 import com.example.demo.response.ChatResponse;
 import com.example.demo.response.StringResponse;
 import com.example.demo.service.ChatService;
+import com.example.demo.service.ChatVersionTracker;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping(APIConstant.API_V_1_CHATS)
@@ -17,6 +26,7 @@ import java.util.List;
 public class ChatController {
 
     private final ChatService chatService;
+    private final ChatVersionTracker chatVersionTracker;
 
     @PostMapping
     public ResponseEntity<StringResponse> createChat(@RequestParam() String senderId, @RequestParam() String receiverId) throws Exception {
@@ -25,7 +35,36 @@ public class ChatController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ChatResponse>> getChatsByReceiver(ChatRequest request) {
-        return ResponseEntity.ok(chatService.getChatsByReceiverId(request));
+    @RateLimited(RateLimitClass.READ)
+    public ResponseEntity<List<ChatResponse>> getChatsByReceiver(ChatRequest request, WebRequest webRequest) {
+        final String eTag = chatVersionTracker.chatListETag(request.getUser().getId());
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        // The resolver always fills in a default page; only page when the client actually asked for one
+        if (webRequest.getParameter(CommonConstant.PARAM_PAGE) == null && webRequest.getParameter(CommonConstant.PARAM_SIZE) == null) {
+            request.setPageable(null);
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(chatService.getChatsByReceiverId(request));
+    }
+
+    @GetMapping(APIConstant.BOOTSTRAP)
+    @RateLimited(RateLimitClass.READ)
+    public ResponseEntity<StreamingResponseBody> getInboxBootstrap(ChatRequest request,
+                                                                   @RequestParam(defaultValue = "" + CommonConstant.BOOTSTRAP_DEFAULT_CHATS) int chats,
+                                                                   @RequestParam(defaultValue = "" + CommonConstant.BOOTSTRAP_DEFAULT_MESSAGES) int messages,
+                                                                   WebRequest webRequest) {
+        final UUID userId = request.getUser().getId();
+        // Every change to any of the user's chats bumps the chat list version, which therefore covers the messages too
+        if (webRequest.checkNotModified(chatVersionTracker.chatListETag(userId))) {
+            return null;
+        }
+        StreamingResponseBody body = out -> chatService.writeInboxBootstrap(userId, chats, messages, out);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 }
@@ -0,0 +1,31 @@
+package com.example.demo.controller;
+
+import com.example.demo.request.DeliveryAckRequest;
+import com.example.demo.service.DeliveryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+import java.util.UUID;
+
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class DeliveryController {
+
+    private final DeliveryService deliveryService;
+
+    /**
+     * Client ack sent to {@code /app/messages/delivered} once a message notification has reached the device.
+     */
+    @MessageMapping("/messages/delivered")
+    public void acknowledgeDelivery(DeliveryAckRequest request, Principal principal) {
+        if (principal == null) {
+            log.debug("Ignoring delivery ack from an unauthenticated session");
+            return;
+        }
+        deliveryService.acknowledge(UUID.fromString(principal.getName()), request.getMessageIds());
+    }
+}
@@ -1,37 +1,63 @@
 package com.example.demo.controller;
 
+import com.example.demo.annotation.RateLimited;
 import com.example.demo.constant.APIConstant;
+import com.example.demo.model.ExportFormat;
 import com.example.demo.model.Message;
+import com.example.demo.model.RateLimitClass;
 import com.example.demo.request.MessageRequest;
 import com.example.demo.response.MessageResponse;
+import com.example.demo.service.ChatExportLimiter;
+import com.example.demo.service.ChatVersionTracker;
 import com.example.demo.service.MessageService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.UUID;
 
 @RestController
 @RequestMapping(APIConstant.API_V_1_MESSAGES)
 public class MessageController {
 
+    private static final int EXPORT_RETRY_AFTER_SECONDS = 30;
+
     @Autowired
     private MessageService messageService;
 
+    @Autowired
+    private ChatVersionTracker chatVersionTracker;
+
+    @Autowired
+    private ChatExportLimiter exportLimiter;
+
+    @Value("${application.export.timeout:2h}")
+    private Duration exportTimeout;
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
+    @RateLimited(RateLimitClass.SEND)
     public Message saveMessage(@RequestBody MessageRequest messageRequest) {
         return messageService.saveMessage(messageRequest);
     }
 
     @PostMapping(value = APIConstant.UPLOAD_MEDIA, consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
+    @RateLimited(RateLimitClass.UPLOAD)
     public ResponseEntity<String> uploadMedia(@RequestParam() UUID chatId,
                                               @RequestParam() MultipartFile file, Authentication authentication) {
         try {
@@ -59,13 +85,60 @@ public class MessageController {
 
     @PatchMapping
     @ResponseStatus(HttpStatus.ACCEPTED)
+    @RateLimited(RateLimitClass.READ)
     public void setMessageToSeen(@RequestParam() UUID chatId, Authentication authentication) {
         messageService.setMessageToSeen(chatId, authentication);
     }
 
+    @GetMapping(APIConstant.SEARCH)
+    @RateLimited(RateLimitClass.READ)
+    public ResponseEntity<Page<MessageResponse>> searchMessages(@RequestParam String q, MessageRequest messageRequest) {
+        return ResponseEntity.ok(messageService.searchMessages(q, messageRequest));
+    }
+
     @GetMapping(APIConstant.CHATS + APIConstant.CHAT_ID_PATH)
-    public ResponseEntity<Page<MessageResponse>> getMessages(@PathVariable UUID chatId, MessageRequest messageRequest) {
-        return ResponseEntity.ok(messageService.findChatMessages(messageRequest));
+    @RateLimited(RateLimitClass.READ)
+    public ResponseEntity<Page<MessageResponse>> getMessages(@PathVariable UUID chatId, MessageRequest messageRequest,
+                                                             WebRequest webRequest) {
+        if (webRequest.checkNotModified(chatVersionTracker.chatHistoryETag(chatId))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(messageService.findChatMessages(messageRequest));
+    }
+
+    @GetMapping(APIConstant.CHATS + APIConstant.CHAT_ID_PATH + APIConstant.EXPORT)
+    public ResponseEntity<StreamingResponseBody> exportChat(@PathVariable UUID chatId,
+                                                            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                                            Authentication authentication,
+                                                            WebRequest webRequest) {
+        if (!messageService.isChatParticipant(chatId, UUID.fromString(authentication.getName()))) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!exportLimiter.tryAcquire()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(EXPORT_RETRY_AFTER_SECONDS))
+                    .build();
+        }
+        // Long histories outlast the default async timeout; this one also bounds how long the export holds its connection
+        WebAsyncUtils.getAsyncManager(webRequest).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+
+        final boolean zip = format == ExportFormat.ZIP;
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("chat-" + chatId + (zip ? ".zip" : ".ndjson"))
+                .build();
+        StreamingResponseBody body = out -> {
+            try {
+                messageService.exportChat(chatId, format, out);
+            } finally {
+                exportLimiter.release();
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .contentType(zip ? MediaType.parseMediaType("application/zip") : MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
 }
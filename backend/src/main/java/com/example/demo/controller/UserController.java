@@ -2,8 +2,11 @@ package com.example.demo.controller;
 
 import com.example.demo.constant.APIConstant;
 import com.example.demo.model.User;
+import com.example.demo.constant.CommonConstant;
+import com.example.demo.response.DirectoryResponse;
 import com.example.demo.response.UserResponse;
 import com.example.demo.service.UserService;
+import com.example.demo.util.LogSafe;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +33,19 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping(APIConstant.DIRECTORY)
+    public ResponseEntity<DirectoryResponse> getDirectory(Authentication authentication,
+                                                          @RequestParam(required = false) String q,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "" + CommonConstant.DEFAULT_SIZE) int size) {
+        try {
+            return ResponseEntity.ok(userService.getDirectory(authentication, q, cursor, size));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid directory request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping(APIConstant.ALL)
     @PreAuthorize("hasRole('ADMIN') or hasRole('MODERATOR')")
     public ResponseEntity<List<User>> getAllUsers() {
@@ -127,13 +143,14 @@ public class UserController {
 
     @GetMapping(APIConstant.SEARCH)
     @PreAuthorize("hasRole('ADMIN') or hasRole('MODERATOR')")
-    public ResponseEntity<List<User>> searchUsers(@RequestParam String q) {
+    public ResponseEntity<List<User>> searchUsers(@RequestParam String q,
+                                                  @RequestParam(defaultValue = "" + CommonConstant.SEARCH_DEFAULT_RESULTS) int limit) {
         try {
-            List<User> users = userService.searchUsers(q);
-            logger.info("Found {} users matching search term: {}", users.size(), q);
+            List<User> users = userService.searchUsers(q, limit);
+            logger.info("Found {} users matching search term: {}", users.size(), LogSafe.truncate(q));
             return ResponseEntity.ok(users);
         } catch (Exception e) {
-            logger.error("Error searching users with term: {}", q, e);
+            logger.error("Error searching users with term: {}", LogSafe.truncate(q), e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -171,9 +188,9 @@ public class UserController {
             Map<String, Object> stats = new HashMap<>();
             stats.put("totalUsers", userService.getAllUsers().size());
             stats.put("activeUsers", userService.getActiveUserCount());
-            stats.put("adminUsers", userService.getUsersByRole(User.Role.ADMIN).size());
-            stats.put("moderatorUsers", userService.getUsersByRole(User.Role.MODERATOR).size());
-            stats.put("regularUsers", userService.getUsersByRole(User.Role.USER).size());
+            stats.put("adminUsers", userService.countUsersByRole(User.Role.ADMIN));
+            stats.put("moderatorUsers", userService.countUsersByRole(User.Role.MODERATOR));
+            stats.put("regularUsers", userService.countUsersByRole(User.Role.USER));
 
             logger.info("Retrieved user statistics");
             return ResponseEntity.ok(stats);
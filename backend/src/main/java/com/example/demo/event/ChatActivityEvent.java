@@ -0,0 +1,32 @@
+package com.example.demo.event;
+
+import com.example.demo.model.Chat;
+import com.example.demo.model.Message;
+
+import java.util.UUID;
+
+/**
+ * Published after something visible in a chat changed: it was created, a message was added or messages were marked
+ * as seen. Both participants' chat lists and the chat's history are affected. Message events carry the saved message
+ * so cached lists and history can be patched instead of reloaded.
+ */
+public record ChatActivityEvent(Kind kind, UUID chatId, UUID senderId, UUID receiverId, Message message) {
+
+    public enum Kind {
+        CREATED,
+        MESSAGE,
+        SEEN
+    }
+
+    public static ChatActivityEvent created(UUID chatId, UUID senderId, UUID receiverId) {
+        return new ChatActivityEvent(Kind.CREATED, chatId, senderId, receiverId, null);
+    }
+
+    public static ChatActivityEvent message(Chat chat, Message message) {
+        return new ChatActivityEvent(Kind.MESSAGE, chat.getId(), chat.getSender().getId(), chat.getReceiver().getId(), message);
+    }
+
+    public static ChatActivityEvent seen(Chat chat) {
+        return new ChatActivityEvent(Kind.SEEN, chat.getId(), chat.getSender().getId(), chat.getReceiver().getId(), null);
+    }
+}
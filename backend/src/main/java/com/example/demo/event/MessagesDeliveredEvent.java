@@ -0,0 +1,10 @@
+package com.example.demo.event;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published after messages of a chat moved from SENT to DELIVERED.
+ */
+public record MessagesDeliveredEvent(UUID chatId, List<UUID> messageIds) {
+}
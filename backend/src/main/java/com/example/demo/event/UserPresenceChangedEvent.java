@@ -0,0 +1,10 @@
+package com.example.demo.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a user who was shown as offline becomes active again. Going offline is not an event: it happens by
+ * time passing, and readers derive it from the last-seen time.
+ */
+public record UserPresenceChangedEvent(UUID userId) {
+}
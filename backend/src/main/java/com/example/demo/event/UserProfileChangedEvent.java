@@ -0,0 +1,10 @@
+package com.example.demo.event;
+
+import java.util.UUID;
+
+/**
+ * Published after a user's name was changed or the user was deleted, which changes how the user appears in other
+ * users' chat lists.
+ */
+public record UserProfileChangedEvent(UUID userId) {
+}
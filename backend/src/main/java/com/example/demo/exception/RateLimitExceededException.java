@@ -0,0 +1,27 @@
+package com.example.demo.exception;
+
+import com.example.demo.model.RateLimitClass;
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final RateLimitClass limitClass;
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(RateLimitClass limitClass, Duration retryAfter) {
+        super("Rate limit exceeded for " + limitClass.name().toLowerCase() + " requests, retry after " + retryAfterSeconds(retryAfter) + "s");
+        this.limitClass = limitClass;
+        this.retryAfter = retryAfter;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds(retryAfter);
+    }
+
+    private static long retryAfterSeconds(Duration retryAfter) {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
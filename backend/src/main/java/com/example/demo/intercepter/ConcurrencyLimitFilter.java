@@ -0,0 +1,187 @@
+package com.example.demo.intercepter;
+
+import com.example.demo.constant.APIConstant;
+import com.example.demo.model.RequestPriority;
+import com.example.demo.response.ErrorResponse;
+import com.example.demo.util.AdaptiveConcurrencyLimit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adaptive admission control for the chat, message and user APIs. Requests are classified by route into a
+ * {@link RequestPriority} and admitted against an {@link AdaptiveConcurrencyLimit}; requests over their priority's
+ * share are answered with 503 immediately instead of queueing behind a slow database.
+ * <p>
+ * Runs after authentication but before {@link UserSynchronizeFilter}, so shed requests never reach Postgres. Metrics:
+ * {@code http.concurrency.limit}, {@code http.concurrency.in.flight} and {@code http.concurrency.shed{priority}}.
+ */
+@Slf4j
+@Component
+@Order(0)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final List<String> LIMITED_PATHS = List.of(
+            APIConstant.API_V_1_CHATS + "/**",
+            APIConstant.API_V_1_MESSAGES + "/**",
+            APIConstant.API_V_1_USERS + "/**");
+
+    private static final List<Route> ROUTES = List.of(
+            // Message send and receive
+            new Route(HttpMethod.POST, APIConstant.API_V_1_MESSAGES + "/**", RequestPriority.CRITICAL),
+            new Route(HttpMethod.PATCH, APIConstant.API_V_1_MESSAGES, RequestPriority.CRITICAL),
+            new Route(HttpMethod.GET, APIConstant.API_V_1_MESSAGES + APIConstant.CHATS + APIConstant.CHAT_ID_PATH, RequestPriority.CRITICAL),
+            new Route(HttpMethod.GET, APIConstant.API_V_1_CHATS + "/**", RequestPriority.CRITICAL),
+            new Route(HttpMethod.POST, APIConstant.API_V_1_CHATS, RequestPriority.CRITICAL),
+            // Bulk reads, admin listings and stats
+            new Route(HttpMethod.GET, APIConstant.API_V_1_MESSAGES + APIConstant.SEARCH, RequestPriority.LOW),
+            new Route(HttpMethod.GET, APIConstant.API_V_1_MESSAGES + APIConstant.CHATS + APIConstant.CHAT_ID_PATH + APIConstant.EXPORT, RequestPriority.LOW),
+            new Route(HttpMethod.GET, APIConstant.API_V_1_USERS + "/?*/**", RequestPriority.LOW));
+
+    // How long these take depends on how fast the client uploads or downloads the body, not on the database
+    private static final List<String> UNTIMED_PATHS = List.of(
+            APIConstant.API_V_1_MESSAGES + APIConstant.UPLOAD_MEDIA,
+            APIConstant.API_V_1_MESSAGES + APIConstant.CHATS + APIConstant.CHAT_ID_PATH + APIConstant.EXPORT,
+            APIConstant.API_V_1_CHATS + APIConstant.BOOTSTRAP);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final AdaptiveConcurrencyLimit limit;
+    private final ObjectMapper objectMapper;
+    private final Map<RequestPriority, Counter> shedCounters = new EnumMap<>(RequestPriority.class);
+
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${application.concurrency-limit.initial:50}") int initialLimit,
+                                  @Value("${application.concurrency-limit.min:10}") int minLimit,
+                                  @Value("${application.concurrency-limit.max:400}") int maxLimit) {
+        this.objectMapper = objectMapper;
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit);
+
+        Gauge.builder("http.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("http.concurrency.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests currently admitted by the concurrency limiter")
+                .register(meterRegistry);
+        for (RequestPriority priority : RequestPriority.values()) {
+            shedCounters.put(priority, Counter.builder("http.concurrency.shed")
+                    .description("Requests rejected by the concurrency limiter")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        final String path = request.getRequestURI().substring(request.getContextPath().length());
+        return LIMITED_PATHS.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        final RequestPriority priority = classify(request);
+        if (!limit.tryAcquire(priority.getLimitShare())) {
+            shedCounters.get(priority).increment();
+            reject(response);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                async = true;
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+            }
+        } finally {
+            if (!async && isTimed(request)) {
+                limit.release(System.nanoTime() - start);
+            } else if (!async) {
+                limit.release();
+            }
+        }
+    }
+
+    /**
+     * Whether the request's duration is a useful latency sample. Uploads and streamed responses, which are the async
+     * ones, still hold a slot but are not timed, so one slow client cannot shrink the limit for everyone.
+     */
+    private boolean isTimed(HttpServletRequest request) {
+        if (StringUtils.startsWithIgnoreCase(request.getContentType(), "multipart/")) {
+            return false;
+        }
+        final String path = request.getRequestURI().substring(request.getContextPath().length());
+        return UNTIMED_PATHS.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private RequestPriority classify(HttpServletRequest request) {
+        final String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Route route : ROUTES) {
+            if (route.method().matches(request.getMethod()) && pathMatcher.match(route.pattern(), path)) {
+                return route.priority();
+            }
+        }
+        return RequestPriority.NORMAL;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message("Server is overloaded, please retry.")
+                .build();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private record Route(HttpMethod method, String pattern, RequestPriority priority) {
+    }
+
+    private class ReleaseOnComplete implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limit.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
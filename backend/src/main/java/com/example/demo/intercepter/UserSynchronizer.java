@@ -1,22 +1,36 @@
 package com.example.demo.intercepter;
 
+import com.example.demo.event.UserPresenceChangedEvent;
+import com.example.demo.event.UserProfileChangedEvent;
 import com.example.demo.mapper.UserMapper;
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.util.LogSafe;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserSynchronizer {
+
+    /**
+     * Minimum age of {@code lastSeen} before a request writes it again; well below the five-minute online window.
+     */
+    private static final Duration LAST_SEEN_WRITE_INTERVAL = Duration.ofMinutes(1);
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public User synchronizedWithIdp(Jwt token) {
         log.debug("Synchronizing user with IDP: {}", token.getSubject());
@@ -24,18 +38,46 @@ public class UserSynchronizer {
         Optional<String> emailOpt = getUserEmail(token);
         if (emailOpt.isPresent()) {
             String email = emailOpt.get();
-            log.debug("Synchronizing user having email {}", email);
+            log.debug("Synchronizing user having email {}", LogSafe.email(email));
             Optional<User> optUser = userRepository.findByEmail(email);
             User user = userMapper.fromTokenAttributes(token.getClaims());
-            optUser.ifPresent(value -> {
-                user.setId(value.getId());
-            });
-            log.debug("User synchronized with IDP: {}", user);
-            return userRepository.save(user);
+            if (optUser.isPresent()) {
+                User existing = optUser.get();
+                // Every write invalidates the cached User, so unchanged users are only touched to refresh lastSeen
+                if (!isProfileChanged(existing, user) && !isLastSeenStale(existing, user.getLastSeen())) {
+                    return existing;
+                }
+                user.setId(existing.getId());
+            }
+            log.debug("User synchronized with IDP: {}", LogSafe.summary(user));
+            User savedUser = userRepository.save(user);
+            if (optUser.isPresent() && isRenamed(optUser.get(), savedUser)) {
+                eventPublisher.publishEvent(new UserProfileChangedEvent(savedUser.getId()));
+            }
+            if (optUser.isPresent() && !optUser.get().isUserOnline()) {
+                eventPublisher.publishEvent(new UserPresenceChangedEvent(savedUser.getId()));
+            }
+            return savedUser;
         }
         return null;
     }
 
+    private boolean isProfileChanged(User before, User after) {
+        return !Objects.equals(before.getEmail(), after.getEmail())
+                || !Objects.equals(before.getKeycloakId(), after.getKeycloakId())
+                || !Objects.equals(before.getRoles(), after.getRoles())
+                || isRenamed(before, after);
+    }
+
+    private boolean isLastSeenStale(User user, LocalDateTime now) {
+        return user.getLastSeen() == null || user.getLastSeen().isBefore(now.minus(LAST_SEEN_WRITE_INTERVAL));
+    }
+
+    private boolean isRenamed(User before, User after) {
+        return !Objects.equals(before.getFirstName(), after.getFirstName())
+                || !Objects.equals(before.getLastName(), after.getLastName());
+    }
+
     private Optional<String> getUserEmail(Jwt token) {
         Map<String, Object> claims = token.getClaims();
 
@@ -1,6 +1,8 @@
 package com.example.demo.mapper;
 
-import com.example.demo.model.Chat;
+import com.example.demo.model.MessageType;
+import com.example.demo.model.User;
+import com.example.demo.projection.ChatSummaryView;
 import com.example.demo.response.ChatResponse;
 import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -8,19 +10,33 @@ import org.springframework.stereotype.Service;
 @NoArgsConstructor
 @Service
 public class ChatMapper {
-    public ChatResponse toChatResponse(Chat chat, String senderId) {
-        ChatResponse chatResponse = ChatResponse.builder()
+    public ChatResponse toChatResponse(ChatSummaryView chat) {
+        return ChatResponse.builder()
                 .id(String.valueOf(chat.getId()))
-                .name(chat.getChatName(senderId))
-                .unreadCount(chat.getUnreadMessagesCount(senderId))
-                .lastMessage(chat.getLastMessage())
-                .isReceiverOnline(chat.getReceiver().isUserOnline())
-                .senderId(chat.getSender().getId())
-                .receiverId(chat.getReceiver().getId())
+                .name(chat.getCounterpartFirstName() + " " + chat.getCounterpartLastName())
+                .unreadCount(chat.getUnreadCount())
+                .lastMessage(getLastMessage(chat))
+                .isReceiverOnline(User.isOnline(chat.getReceiverLastSeen()))
+                .senderId(chat.getSenderId())
+                .receiverId(chat.getReceiverId())
                 .lastMessageTime(chat.getLastMessageTime())
                 .build();
-        return chatResponse;
     }
 
+    public String toLastMessage(MessageType type, String content) {
+        if (type == null) {
+            return null;
+        }
+        if (type != MessageType.TEXT) {
+            return "Attachment";
+        }
+        return content;
+    }
+
+    private String getLastMessage(ChatSummaryView chat) {
+        return chat.getLastMessageType() == null
+                ? null
+                : toLastMessage(MessageType.valueOf(chat.getLastMessageType()), chat.getLastMessageContent());
+    }
 
 }
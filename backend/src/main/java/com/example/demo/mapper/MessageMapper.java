@@ -1,6 +1,7 @@
 package com.example.demo.mapper;
 
 import com.example.demo.model.Message;
+import com.example.demo.response.MessageExportResponse;
 import com.example.demo.response.MessageResponse;
 import com.example.demo.util.FileUtil;
 import lombok.NoArgsConstructor;
@@ -21,4 +22,17 @@ public class MessageMapper {
                 .media(FileUtil.readFileFromLocation((message.getMediaFilePath())))
                 .build();
     }
+
+    public MessageExportResponse toMessageExportResponse(Message message, String mediaFile) {
+        return MessageExportResponse.builder()
+                .messageId(message.getId())
+                .content(message.getContent())
+                .senderId(message.getSenderId())
+                .receiverId(message.getReceiverId())
+                .type(message.getType())
+                .state(message.getState())
+                .createdAt(message.getCreatedAt())
+                .mediaFile(mediaFile)
+                .build();
+    }
 }
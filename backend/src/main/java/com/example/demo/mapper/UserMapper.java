@@ -1,6 +1,7 @@
 package com.example.demo.mapper;
 
 import com.example.demo.model.User;
+import com.example.demo.projection.UserDirectoryView;
 import com.example.demo.response.UserResponse;
 import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -71,4 +72,15 @@ public class UserMapper {
                 .roles(user.getRoles())
                 .build();
     }
+
+    public UserResponse toUserResponse(UserDirectoryView user) {
+        return UserResponse.builder()
+                .userId(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .lastSeen(user.getLastSeen())
+                .isOnline(User.isOnline(user.getLastSeen()))
+                .build();
+    }
 }
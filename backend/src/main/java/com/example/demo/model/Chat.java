@@ -1,11 +1,14 @@
 package com.example.demo.model;
 
+import com.example.demo.annotation.UuidV7Id;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -16,11 +19,16 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "chats")
+@Table(name = "chats", indexes = {
+        @Index(name = "idx_chats_sender", columnList = "sender_id"),
+        @Index(name = "idx_chats_receiver", columnList = "receiver_id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "chats")
 public class Chat extends BaseAuditingEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     private UUID id;
 
     @ManyToOne
@@ -30,7 +38,13 @@ public class Chat extends BaseAuditingEntity {
     @JoinColumn(name = "receiver_id", nullable = false)
     private User receiver;
 
-    @OneToMany(mappedBy = "chat", fetch = FetchType.EAGER)
+    // Canonical (least, greatest) participant pair, unique per chat; written only by ChatRepository.upsertChat
+    @Column(name = "participant_low", insertable = false, updatable = false)
+    private UUID participantLow;
+    @Column(name = "participant_high", insertable = false, updatable = false)
+    private UUID participantHigh;
+
+    @OneToMany(mappedBy = "chat", fetch = FetchType.LAZY)
     @OrderBy("createdAt DESC")
     @JsonManagedReference
     private List<Message> messages;
@@ -44,7 +58,7 @@ public class Chat extends BaseAuditingEntity {
     public Long getUnreadMessagesCount(final String userId) {
         return messages.stream()
                 .filter(msg -> msg.getReceiverId().toString().equals(userId))
-                .filter(msg -> msg.getState() == MessageState.SENT)
+                .filter(msg -> msg.getState() != MessageState.SEEN)
                 .count();
     }
 
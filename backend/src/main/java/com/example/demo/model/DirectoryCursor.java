@@ -0,0 +1,33 @@
+package com.example.demo.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in the user directory, i.e. the sort key of the last row of a page.
+ * Serialized as an opaque URL-safe token.
+ */
+public record DirectoryCursor(String firstName, String lastName, UUID id) {
+
+    /**
+     * Position before the first entry: every sort key compares greater than ("", "", nil UUID).
+     */
+    public static final DirectoryCursor START = new DirectoryCursor("", "", new UUID(0L, 0L));
+
+    private static final String SEPARATOR = "\u0000";
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, firstName, lastName, id.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static DirectoryCursor decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] parts = raw.split(SEPARATOR, -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid directory cursor: " + token);
+        }
+        return new DirectoryCursor(parts[0], parts[1], UUID.fromString(parts[2]));
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.demo.model;
 
 
+import com.example.demo.annotation.UuidV7Id;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -15,11 +16,14 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        @Index(name = "idx_messages_chat_created", columnList = "chat_id, created_date DESC"),
+        @Index(name = "idx_messages_chat_receiver_state", columnList = "chat_id, receiver_id, state")
+})
 public class Message extends BaseAuditingEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     private UUID id;
     @Column(columnDefinition = "TEXT")
     private String content;
@@ -27,7 +31,7 @@ public class Message extends BaseAuditingEntity {
     private MessageState state;
     @Enumerated(EnumType.STRING)
     private MessageType type;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonBackReference
     @JoinColumn(name = "chat_id", nullable = false)
     private Chat chat;
@@ -3,5 +3,6 @@ package com.example.demo.model;
 
 public enum MessageState {
     SENT,
+    DELIVERED,
     SEEN
 }
@@ -12,6 +12,7 @@ import java.util.UUID;
 public class Notification {
 
     private UUID chatId;
+    private UUID messageId;
     private String content;
     private UUID senderId;
     private UUID receiverId;
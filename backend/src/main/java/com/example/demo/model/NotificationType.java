@@ -3,6 +3,7 @@ package com.example.demo.model;
 
 public enum NotificationType {
     SEEN,
+    DELIVERED,
     MESSAGE,
     IMAGE,
     AUDIO,
@@ -0,0 +1,21 @@
+package com.example.demo.model;
+
+/**
+ * Admission priority under load. Each priority may use only its share of the current concurrency limit, so lower
+ * priorities are shed first and the rest of the limit stays available for sending and receiving messages.
+ */
+public enum RequestPriority {
+    CRITICAL(1.0),
+    NORMAL(0.8),
+    LOW(0.5);
+
+    private final double limitShare;
+
+    RequestPriority(double limitShare) {
+        this.limitShare = limitShare;
+    }
+
+    public double getLimitShare() {
+        return limitShare;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Stores a set of {@link User.Role} as a bitmask of {@link User.Role#getBit()} in a single integer column, so a user
+ * loads without a join and role lookups are bitwise predicates. Sets read from the database are unmodifiable: replace
+ * the set with {@code setRoles} rather than changing it in place.
+ */
+@Converter
+public class RoleMaskConverter implements AttributeConverter<Set<User.Role>, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(Set<User.Role> roles) {
+        int mask = 0;
+        if (roles != null) {
+            for (User.Role role : roles) {
+                mask |= role.getBit();
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    public Set<User.Role> convertToEntityAttribute(Integer mask) {
+        final EnumSet<User.Role> roles = EnumSet.noneOf(User.Role.class);
+        if (mask != null) {
+            for (User.Role role : User.Role.values()) {
+                if ((mask & role.getBit()) != 0) {
+                    roles.add(role);
+                }
+            }
+        }
+        return Collections.unmodifiableSet(roles);
+    }
+}
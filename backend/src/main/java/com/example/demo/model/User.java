@@ -7,7 +7,12 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -16,6 +21,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Data
 @EqualsAndHashCode(callSuper = false)
 @AllArgsConstructor
@@ -42,8 +49,9 @@ public class User extends BaseAuditingEntity {
     @Column(name = "keycloak_id", unique = true)
     private String keycloakId;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = RoleMaskConverter.class)
+    @Column(name = "roles_mask", nullable = false)
+    @ColumnDefault("0")
     private Set<Role> roles;
 
 
@@ -60,11 +68,24 @@ public class User extends BaseAuditingEntity {
 
     @Transient
     public boolean isUserOnline() {
+        return isOnline(lastSeen);
+    }
+
+    public static boolean isOnline(LocalDateTime lastSeen) {
         return lastSeen != null && lastSeen.isAfter(LocalDateTime.now().minusMinutes(LAST_ACTIVITY_INTERVAL));
     }
 
 
+    /**
+     * Bits are persisted in {@code users.roles_mask} and used by db/schema.sql: never renumber an existing role.
+     */
+    @Getter
+    @RequiredArgsConstructor
     public enum Role {
-        USER, ADMIN, MODERATOR
+        USER(1),
+        ADMIN(1 << 1),
+        MODERATOR(1 << 2);
+
+        private final int bit;
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.example.demo.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat row returned by {@link com.example.demo.repository.ChatRepository#findChatSummaries}, carrying only
+ * the columns needed to build a {@link com.example.demo.response.ChatResponse}.
+ */
+public interface ChatSummaryView {
+
+    UUID getId();
+
+    UUID getSenderId();
+
+    UUID getReceiverId();
+
+    String getCounterpartFirstName();
+
+    String getCounterpartLastName();
+
+    LocalDateTime getReceiverLastSeen();
+
+    String getLastMessageContent();
+
+    String getLastMessageType();
+
+    LocalDateTime getLastMessageTime();
+
+    Long getUnreadCount();
+}
@@ -0,0 +1,16 @@
+package com.example.demo.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface DeliveredMessageView {
+    UUID getId();
+
+    UUID getChatId();
+
+    UUID getSenderId();
+
+    String getType();
+
+    LocalDateTime getCreatedAt();
+}
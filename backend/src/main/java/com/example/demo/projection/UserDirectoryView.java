@@ -0,0 +1,24 @@
+package com.example.demo.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Directory row returned by {@link com.example.demo.repository.UserRepository}; roles and chats are not loaded.
+ */
+public interface UserDirectoryView {
+
+    UUID getId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getEmail();
+
+    LocalDateTime getLastSeen();
+
+    String getSortFirstName();
+
+    String getSortLastName();
+}
@@ -1,10 +1,14 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Chat;
+import com.example.demo.projection.ChatSummaryView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,6 +18,61 @@ public interface ChatRepository extends JpaRepository<Chat, UUID>, JpaSpecificat
     @Query(value = "SELECT DISTINCT c FROM Chat c WHERE c.sender.id = ?1 OR c.receiver.id = ?1 ORDER BY c.createdAt DESC")
     List<Chat> findChatsByUserId(UUID senderId);
 
-    @Query(value = "SELECT DISTINCT c FROM Chat c WHERE (c.sender.id = ?1 AND c.receiver.id = ?2) OR (c.sender.id = ?2 AND c.receiver.id = ?1)")
-    Optional<Chat> finChatByReceiverAndSender(UUID senderId, UUID receiverId);
+    /**
+     * Inserts a chat for the pair unless one already exists and returns the id of the chat for the pair, in a
+     * single statement. Returns empty only when a concurrent transaction inserted the pair after this statement's
+     * snapshot was taken; running the statement again then returns that chat.
+     */
+    @Transactional
+    @Query(value = """
+            WITH inserted AS (
+                INSERT INTO chats (id, sender_id, receiver_id, participant_low, participant_high,
+                                   created_date, last_modified_date)
+                VALUES (:id, :senderId, :receiverId, LEAST(:senderId, :receiverId), GREATEST(:senderId, :receiverId),
+                        :now, :now)
+                ON CONFLICT (participant_low, participant_high) DO NOTHING
+                RETURNING id
+            )
+            SELECT id FROM inserted
+            UNION ALL
+            SELECT c.id FROM chats c
+            WHERE c.participant_low = LEAST(:senderId, :receiverId)
+              AND c.participant_high = GREATEST(:senderId, :receiverId)
+            LIMIT 1
+            """, nativeQuery = true)
+    Optional<UUID> upsertChat(@Param("id") UUID id, @Param("senderId") UUID senderId,
+                              @Param("receiverId") UUID receiverId, @Param("now") LocalDateTime now);
+
+    @Query(value = """
+            SELECT CASE WHEN c.sender_id = :userId THEN c.receiver_id ELSE c.sender_id END
+            FROM chats c
+            WHERE c.sender_id = :userId OR c.receiver_id = :userId
+            """, nativeQuery = true)
+    List<UUID> findCounterpartIds(@Param("userId") UUID userId);
+
+    @Query(value = """
+            SELECT c.id AS "id",
+                   c.sender_id AS "senderId",
+                   c.receiver_id AS "receiverId",
+                   CASE WHEN c.sender_id = :userId THEN r.first_name ELSE s.first_name END AS "counterpartFirstName",
+                   CASE WHEN c.sender_id = :userId THEN r.last_name ELSE s.last_name END AS "counterpartLastName",
+                   r.last_seen AS "receiverLastSeen",
+                   lm.content AS "lastMessageContent",
+                   lm.type AS "lastMessageType",
+                   lm.created_date AS "lastMessageTime",
+                   (SELECT count(*) FROM messages um
+                     WHERE um.chat_id = c.id AND um.receiver_id = :userId AND um.state <> 'SEEN') AS "unreadCount"
+            FROM chats c
+            JOIN users s ON s.id = c.sender_id
+            JOIN users r ON r.id = c.receiver_id
+            LEFT JOIN LATERAL (SELECT m.content, m.type, m.created_date FROM messages m
+                                WHERE m.chat_id = c.id
+                                ORDER BY m.created_date DESC
+                                LIMIT 1) lm ON true
+            WHERE c.sender_id = :userId OR c.receiver_id = :userId
+            ORDER BY COALESCE(lm.created_date, c.created_date) DESC, c.id
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<ChatSummaryView> findChatSummaries(@Param("userId") UUID userId, @Param("limit") int limit,
+                                            @Param("offset") long offset);
 }
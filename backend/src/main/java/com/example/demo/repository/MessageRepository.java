@@ -3,14 +3,23 @@ package com.example.demo.repository;
 
 import com.example.demo.model.Message;
 import com.example.demo.model.MessageState;
+import com.example.demo.projection.DeliveredMessageView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface MessageRepository extends JpaRepository<Message, UUID> {
 
@@ -19,7 +28,79 @@ public interface MessageRepository extends JpaRepository<Message, UUID> {
 
     Page<Message> findAllByChatIdOrderByCreatedAtDesc(UUID chatId, Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(value = "SELECT m FROM Message m WHERE m.chat.id = :chatId ORDER BY m.createdAt")
+    Stream<Message> streamByChatId(UUID chatId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query(value = "SELECT m FROM Message m WHERE m.chat.id = :chatId AND m.mediaFilePath IS NOT NULL ORDER BY m.createdAt")
+    Stream<Message> streamMediaByChatId(UUID chatId);
+
+    /**
+     * Moves the receiver's SENT messages among {@code ids} to DELIVERED and returns the ones that changed, so repeated
+     * acks are no-ops.
+     */
+    @Transactional
+    @Query(value = """
+            WITH delivered AS (
+                UPDATE messages SET state = 'DELIVERED', last_modified_date = :now
+                WHERE receiver_id = :receiverId AND id IN (:ids) AND state = 'SENT'
+                RETURNING id, chat_id, sender_id, type, created_date
+            )
+            SELECT id AS "id", chat_id AS "chatId", sender_id AS "senderId", type AS "type", created_date AS "createdAt"
+            FROM delivered
+            """, nativeQuery = true)
+    List<DeliveredMessageView> markDelivered(@Param("receiverId") UUID receiverId, @Param("ids") Collection<UUID> ids,
+                                             @Param("now") LocalDateTime now);
+
     @Query(value = "UPDATE Message m SET m.state = :newState WHERE m.chat.id = :chatId")
     @Modifying
     void setMessageToSeenByChatId(UUID chatId, MessageState newState);
+
+    @Query(value = """
+            SELECT m.* FROM messages m
+            WHERE m.chat_id = :chatId
+              AND (m.sender_id = :userId OR m.receiver_id = :userId)
+              AND m.content_tsv @@ websearch_to_tsquery('simple', :query)
+            ORDER BY ts_rank(m.content_tsv, websearch_to_tsquery('simple', :query)) DESC, m.created_date DESC
+            """,
+            countQuery = """
+            SELECT count(*) FROM messages m
+            WHERE m.chat_id = :chatId
+              AND (m.sender_id = :userId OR m.receiver_id = :userId)
+              AND m.content_tsv @@ websearch_to_tsquery('simple', :query)
+            """,
+            nativeQuery = true)
+    Page<Message> searchInChat(@Param("chatId") UUID chatId, @Param("userId") UUID userId,
+                               @Param("query") String query, Pageable pageable);
+
+    @Query(value = """
+            SELECT m.* FROM messages m
+            WHERE (m.sender_id = :userId OR m.receiver_id = :userId)
+              AND m.content_tsv @@ websearch_to_tsquery('simple', :query)
+            ORDER BY ts_rank(m.content_tsv, websearch_to_tsquery('simple', :query)) DESC, m.created_date DESC
+            """,
+            countQuery = """
+            SELECT count(*) FROM messages m
+            WHERE (m.sender_id = :userId OR m.receiver_id = :userId)
+              AND m.content_tsv @@ websearch_to_tsquery('simple', :query)
+            """,
+            nativeQuery = true)
+    Page<Message> searchForUser(@Param("userId") UUID userId, @Param("query") String query, Pageable pageable);
+
+    /**
+     * Streams the newest {@code limit} messages of each chat, grouped by chat and newest first. Each chat is read
+     * with its own top-N index scan, so the cost does not grow with the length of the history.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query(value = """
+            SELECT m.* FROM chats c
+            CROSS JOIN LATERAL (SELECT * FROM messages r
+                                WHERE r.chat_id = c.id
+                                ORDER BY r.created_date DESC
+                                LIMIT :limit) m
+            WHERE c.id IN (:chatIds)
+            ORDER BY m.chat_id, m.created_date DESC
+            """, nativeQuery = true)
+    Stream<Message> streamRecentMessages(@Param("chatIds") Collection<UUID> chatIds, @Param("limit") int limit);
 }
@@ -1,6 +1,7 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.User;
+import com.example.demo.projection.UserDirectoryView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,17 +21,58 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     @Query(value = "SELECT u FROM User u WHERE u.id <> :publicId")
     List<User> findAllUsersExceptSelf(UUID publicId);
 
+    @Query(value = """
+            SELECT u.id AS "id",
+                   u.first_name AS "firstName",
+                   u.last_name AS "lastName",
+                   u.email AS "email",
+                   u.last_seen AS "lastSeen",
+                   lower(coalesce(u.first_name, '')) AS "sortFirstName",
+                   lower(coalesce(u.last_name, '')) AS "sortLastName"
+            FROM users u
+            WHERE u.id <> :selfId
+              AND (lower(u.first_name) LIKE :prefix OR lower(u.last_name) LIKE :prefix OR lower(u.email) LIKE :prefix)
+              AND (lower(coalesce(u.first_name, '')), lower(coalesce(u.last_name, '')), u.id)
+                  > (:afterFirstName, :afterLastName, :afterId)
+            ORDER BY lower(coalesce(u.first_name, '')), lower(coalesce(u.last_name, '')), u.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UserDirectoryView> findDirectoryPage(@Param("selfId") UUID selfId, @Param("prefix") String prefix,
+                                              @Param("afterFirstName") String afterFirstName,
+                                              @Param("afterLastName") String afterLastName,
+                                              @Param("afterId") UUID afterId, @Param("limit") int limit);
+
     Optional<User> findByKeycloakId(String keycloakId);
 
     boolean existsByEmail(String email);
 
     List<User> findByIsActive(Boolean isActive);
 
-    @Query("SELECT u FROM User u WHERE u.firstName LIKE %:name% OR u.lastName LIKE %:name%")
-    List<User> findByFirstNameContainingOrLastNameContaining(@Param("name") String name);
+    @Query(value = """
+            SELECT u.* FROM users u
+            WHERE lower(coalesce(u.first_name, '') || ' ' || coalesce(u.last_name, '')) LIKE :pattern
+            ORDER BY similarity(lower(coalesce(u.first_name, '') || ' ' || coalesce(u.last_name, '')), :term) DESC, u.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<User> searchByName(@Param("term") String term, @Param("pattern") String pattern, @Param("limit") int limit);
+
+    /**
+     * Users holding the role with the given bit. db/schema.sql has partial indexes for the rare roles, matching this
+     * predicate once the bit is bound; USER is held by nearly everyone and is read sequentially.
+     */
+    @Query(value = "SELECT u.* FROM users u WHERE (u.roles_mask & :bit) <> 0", nativeQuery = true)
+    List<User> findByRoleBit(@Param("bit") int bit);
+
+    @Query(value = "SELECT count(*) FROM users u WHERE (u.roles_mask & :bit) <> 0", nativeQuery = true)
+    long countByRoleBit(@Param("bit") int bit);
+
+    default List<User> findByRole(User.Role role) {
+        return findByRoleBit(role.getBit());
+    }
 
-    @Query("SELECT u FROM User u WHERE :role MEMBER OF u.roles")
-    List<User> findByRole(@Param("role") User.Role role);
+    default long countByRole(User.Role role) {
+        return countByRoleBit(role.getBit());
+    }
 
     @Query("SELECT COUNT(u) FROM User u WHERE u.isActive = true")
     Long countActiveUsers();
@@ -0,0 +1,17 @@
+package com.example.demo.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DirectoryResponse {
+
+    private List<UserResponse> users;
+    private String nextCursor;
+
+}
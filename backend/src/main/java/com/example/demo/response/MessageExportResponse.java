@@ -0,0 +1,30 @@
+package com.example.demo.response;
+
+
+import com.example.demo.model.MessageState;
+import com.example.demo.model.MessageType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One line of a chat export. Media is not inlined; {@code mediaFile} names the entry holding it in a zip export.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MessageExportResponse {
+    private UUID messageId;
+    private String content;
+    private MessageType type;
+    private MessageState state;
+    private UUID senderId;
+    private UUID receiverId;
+    private LocalDateTime createdAt;
+    private String mediaFile;
+}
@@ -0,0 +1,35 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the number of chat exports streaming at once. An export reads the history through a cursor inside one
+ * read-only transaction, so it holds a pooled database connection for as long as the client takes to download; this
+ * keeps slow downloads from taking the whole pool. Exports over the cap are refused, not queued.
+ */
+@Service
+public class ChatExportLimiter {
+
+    private final Semaphore permits;
+
+    public ChatExportLimiter(MeterRegistry meterRegistry,
+                             @Value("${application.export.max-concurrent:4}") int maxConcurrent) {
+        this.permits = new Semaphore(maxConcurrent);
+        Gauge.builder("chat.export.in.flight", permits, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .description("Chat exports currently streaming")
+                .register(meterRegistry);
+    }
+
+    public boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
@@ -1,61 +1,138 @@
 package com.example.demo.service;
 
+import com.example.demo.cache.ChatListCache;
+import com.example.demo.constant.CommonConstant;
+import com.example.demo.event.ChatActivityEvent;
 import com.example.demo.mapper.ChatMapper;
+import com.example.demo.mapper.MessageMapper;
+import com.example.demo.model.Message;
 import com.example.demo.model.Chat;
-import com.example.demo.model.User;
 import com.example.demo.repository.ChatRepository;
-import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.MessageRepository;
 import com.example.demo.request.ChatRequest;
 import com.example.demo.response.ChatResponse;
+import com.example.demo.util.UuidV7;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ChatService {
     private final ChatRepository chatRepository;
-    private final UserRepository userRepository;
+    private final MessageRepository messageRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChatListCache chatListCache;
 
     private final ChatMapper mapper;
+    private final MessageMapper messageMapper;
 
-    @Transactional(readOnly = true)
+    /**
+     * Returns the user's chats ordered by last activity: one page if the request carries a pageable, otherwise the
+     * whole list.
+     */
     public List<ChatResponse> getChatsByReceiverId(ChatRequest chatRequest) {
         final UUID userId = chatRequest.getUser().getId();
-        Specification<Chat> specification = (root, query, criteriaBuilder) -> criteriaBuilder.or(
-                criteriaBuilder.equal(root.get("sender").get("id"), userId),
-                criteriaBuilder.equal(root.get("receiver").get("id"), userId));
+        Pageable pageable = Optional.ofNullable(chatRequest.getPageable())
+                .orElse(PageRequest.of(CommonConstant.DEFAULT_PAGE, Integer.MAX_VALUE));
 
-        return chatRepository.findAll(specification).stream()
-                .map(chat -> mapper.toChatResponse(chat, userId.toString())).toList();
+        return chatListCache.get(userId, pageable, () ->
+                chatRepository.findChatSummaries(userId, pageable.getPageSize(), pageable.getOffset()).stream()
+                        .map(mapper::toChatResponse).toList());
     }
 
-    public UUID createChat(String senderId, String receiverId) {
-        Optional<Chat> existingChat = chatRepository.finChatByReceiverAndSender(UUID.fromString(senderId),
-                UUID.fromString(receiverId));
-        if (existingChat.isPresent()) {
-            return existingChat.get().getId();
-        }
+    /**
+     * Writes the first {@code chatLimit} chats of the user's chat list together with the newest
+     * {@code messageLimit} messages of each of them as one JSON document:
+     * <pre>{"chats": [ChatResponse...], "messages": {"&lt;chatId&gt;": [MessageResponse...]}}</pre>
+     * Messages are read through a database cursor and written one at a time, so media payloads are never all held
+     * in memory.
+     */
+    @Transactional(readOnly = true)
+    public void writeInboxBootstrap(UUID userId, int chatLimit, int messageLimit, OutputStream out) throws IOException {
+        final int chats = Math.min(Math.max(chatLimit, 1), CommonConstant.BOOTSTRAP_MAX_CHATS);
+        final int messages = Math.min(Math.max(messageLimit, 0), CommonConstant.BOOTSTRAP_MAX_MESSAGES);
 
-        User sender = userRepository.findByPublicId(UUID.fromString(senderId))
-                .orElseThrow(() -> new EntityNotFoundException("User not found with sender ID: " + senderId));
+        List<ChatResponse> chatResponses = chatRepository.findChatSummaries(userId, chats, 0).stream()
+                .map(mapper::toChatResponse).toList();
+
+        try (JsonGenerator json = objectMapper.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("chats");
+            for (ChatResponse chatResponse : chatResponses) {
+                json.writeObject(chatResponse);
+            }
+            json.writeEndArray();
+
+            json.writeObjectFieldStart("messages");
+            if (!chatResponses.isEmpty() && messages > 0) {
+                List<UUID> chatIds = chatResponses.stream().map(chat -> UUID.fromString(chat.getId())).toList();
+                try (Stream<Message> recentMessages = messageRepository.streamRecentMessages(chatIds, messages)) {
+                    writeMessagesByChat(json, recentMessages.iterator());
+                }
+            }
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+    }
 
-        User receiver = userRepository.findByPublicId(UUID.fromString(receiverId))
-                .orElseThrow(() -> new EntityNotFoundException("User not found with receiver ID: " + receiverId));
+    private void writeMessagesByChat(JsonGenerator json, Iterator<Message> messages) throws IOException {
+        UUID currentChatId = null;
+        while (messages.hasNext()) {
+            Message message = messages.next();
+            UUID chatId = message.getChat().getId();
+            if (!chatId.equals(currentChatId)) {
+                if (currentChatId != null) {
+                    json.writeEndArray();
+                }
+                json.writeArrayFieldStart(chatId.toString());
+                currentChatId = chatId;
+            }
+            json.writeObject(messageMapper.toMessageResponse(message));
+            entityManager.detach(message);
+        }
+        if (currentChatId != null) {
+            json.writeEndArray();
+        }
+    }
 
-        Chat chat = new Chat();
-        chat.setSender(sender);
-        chat.setReceiver(receiver);
+    public UUID createChat(String senderId, String receiverId) {
+        final UUID senderUuid = UUID.fromString(senderId);
+        final UUID receiverUuid = UUID.fromString(receiverId);
 
-        Chat saveChat = chatRepository.save(chat);
+        try {
+            final UUID chatId = upsertChat(senderUuid, receiverUuid)
+                    // Lost a race with a concurrent create of the same pair; its row is visible to a new statement
+                    .or(() -> upsertChat(senderUuid, receiverUuid))
+                    .orElseThrow(() -> new IllegalStateException("Could not create chat between " + senderId + " and " + receiverId));
+            eventPublisher.publishEvent(ChatActivityEvent.created(chatId, senderUuid, receiverUuid));
+            return chatId;
+        } catch (DataIntegrityViolationException e) {
+            throw new EntityNotFoundException("User not found with sender ID: " + senderId + " or receiver ID: " + receiverId);
+        }
+    }
 
-        return saveChat.getId();
+    private Optional<UUID> upsertChat(UUID senderId, UUID receiverId) {
+        return chatRepository.upsertChat(UuidV7.randomUUID(), senderId, receiverId, LocalDateTime.now());
     }
 
     public List<Chat> getAllChats() {
@@ -0,0 +1,106 @@
+package com.example.demo.service;
+
+import com.example.demo.event.UserProfileChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * Keeps a version number per user chat list and per chat history so that conditional GETs can be answered from
+ * memory. Versions are bumped after the changing transaction commits, so a version is never published before the
+ * data it describes is visible. Chat list versions are bumped by {@link com.example.demo.cache.ChatListCache} and
+ * chat history versions by {@link com.example.demo.cache.RecentMessageBuffer}, each under the same per-key lock that
+ * patches its cached data.
+ * <p>
+ * Versions are taken from one increasing sequence. When an entry is evicted the sequence value it held is folded
+ * into {@code evictedFloor}, which absent entries report instead of zero; an evicted key therefore never reports a
+ * version it has not had since its last change. A random epoch per process makes ETags from before a restart stale.
+ * Versions live in this process only, which matches the in-memory STOMP broker: the server runs as a single node.
+ */
+@Service
+public class ChatVersionTracker {
+
+    private static final int MAX_TRACKED = 500_000;
+    private static final long PRESENCE_BUCKET_MILLIS = 60_000;
+
+    private final long epoch = new SecureRandom().nextLong();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong evictedFloor = new AtomicLong();
+    private final AtomicLong profileVersion = new AtomicLong();
+
+    private final Cache<UUID, Long> userVersions = newVersionCache();
+    private final Cache<UUID, Long> chatVersions = newVersionCache();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        profileVersion.set(sequence.incrementAndGet());
+    }
+
+    public long bumpChatHistoryVersion(UUID chatId) {
+        final long version = sequence.incrementAndGet();
+        chatVersions.put(chatId, version);
+        return version;
+    }
+
+    public long chatHistoryVersion(UUID chatId) {
+        return versionOf(chatVersions, chatId);
+    }
+
+    public long bumpChatListVersion(UUID userId) {
+        final long version = sequence.incrementAndGet();
+        userVersions.put(userId, version);
+        return version;
+    }
+
+    /**
+     * Version of everything the user's chat list shows, apart from the online flags that expire with time.
+     */
+    public long chatListVersion(UUID userId) {
+        return Math.max(versionOf(userVersions, userId), profileVersion.get());
+    }
+
+    /**
+     * Weak ETag for the user's chat list. Besides the user's own version it covers profile changes of any user and
+     * the current minute, because the list shows counterpart names and an online flag derived from their last-seen
+     * time.
+     */
+    public String chatListETag(UUID userId) {
+        return weakETag(userId, chatListVersion(userId), System.currentTimeMillis() / PRESENCE_BUCKET_MILLIS);
+    }
+
+    public String chatHistoryETag(UUID chatId) {
+        return weakETag(chatId, chatHistoryVersion(chatId), 0);
+    }
+
+    private long versionOf(Cache<UUID, Long> versions, UUID id) {
+        Long version = versions.getIfPresent(id);
+        return version != null ? version : evictedFloor.get();
+    }
+
+    private String weakETag(UUID id, long version, long bucket) {
+        ByteBuffer buffer = ByteBuffer.allocate(40)
+                .putLong(epoch)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .putLong(version)
+                .putLong(bucket);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.flip());
+        return "W/\"" + Long.toHexString(version) + "-" + HexFormat.of().toHexDigits((int) crc.getValue()) + "\"";
+    }
+
+    private Cache<UUID, Long> newVersionCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED)
+                .<UUID, Long>evictionListener((id, version, cause) -> evictedFloor.accumulateAndGet(version, Math::max))
+                .build();
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.demo.service;
+
+import com.example.demo.event.MessagesDeliveredEvent;
+import com.example.demo.model.Notification;
+import com.example.demo.model.NotificationType;
+import com.example.demo.projection.DeliveredMessageView;
+import com.example.demo.repository.MessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Records client delivery acks. Acks are queued in memory and written in batches, one statement per receiver, so a
+ * burst of acks costs a handful of updates. For each message that actually moved from SENT to DELIVERED the
+ * send-to-delivery latency is recorded as {@code message.delivery.latency{type}} and the sender is notified.
+ * <p>
+ * Latency is measured from the message's creation to the moment the ack reached the server, so it includes the time
+ * the recipient was offline; the histogram range is set accordingly. An ack that appears to predate its message
+ * (clock skew) is recorded as zero and counted in {@code message.delivery.latency.negative}.
+ * <p>
+ * A receiver's batch that fails to write is re-queued for the next flush, up to {@value #MAX_ATTEMPTS} attempts, and
+ * the queue is flushed once more on shutdown. Acks are still only held in memory, so a crash loses those not yet
+ * written; clients re-ack whatever they still see as SENT.
+ */
+@Service
+@Slf4j
+public class DeliveryService {
+
+    private static final int MAX_IDS_PER_ACK = 100;
+    static final int MAX_ATTEMPTS = 3;
+
+    private final MessageRepository messageRepository;
+    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final int maxBatch;
+
+    private final ConcurrentLinkedQueue<Ack> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Counter appliedAcks;
+    private final Counter ignoredAcks;
+    private final Counter droppedAcks;
+    private final Counter negativeLatencies;
+
+    public DeliveryService(MessageRepository messageRepository,
+                           NotificationService notificationService,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry,
+                           @Value("${application.delivery.max-batch:1000}") int maxBatch) {
+        this.messageRepository = messageRepository;
+        this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.maxBatch = maxBatch;
+
+        this.appliedAcks = ackCounter("applied");
+        this.ignoredAcks = ackCounter("ignored");
+        this.droppedAcks = ackCounter("dropped");
+        this.negativeLatencies = Counter.builder("message.delivery.latency.negative")
+                .description("Delivered messages whose ack predates their creation time, recorded as zero latency")
+                .register(meterRegistry);
+        Gauge.builder("message.delivery.acks.pending", pendingCount, AtomicInteger::get)
+                .description("Delivery acks waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public void acknowledge(UUID receiverId, Collection<UUID> messageIds) {
+        if (messageIds == null || messageIds.isEmpty()) {
+            return;
+        }
+        acknowledge(receiverId, messageIds, LocalDateTime.now());
+    }
+
+    void acknowledge(UUID receiverId, Collection<UUID> messageIds, LocalDateTime ackedAt) {
+        messageIds.stream().distinct().limit(MAX_IDS_PER_ACK)
+                .forEach(messageId -> enqueue(new Ack(receiverId, messageId, ackedAt, 0)));
+    }
+
+    @Scheduled(fixedDelayString = "${application.delivery.flush-interval:200ms}")
+    public void flush() {
+        // Failed acks go back on the queue only after it has been drained, so they wait for the next flush
+        List<Ack> retries = new ArrayList<>();
+        while (pendingCount.get() > 0) {
+            flushBatch(retries);
+        }
+        retries.forEach(this::enqueue);
+    }
+
+    @PreDestroy
+    public void drain() {
+        // Every pass either writes an ack or moves it closer to MAX_ATTEMPTS, so this ends
+        while (pendingCount.get() > 0) {
+            flush();
+        }
+    }
+
+    private void enqueue(Ack ack) {
+        pending.add(ack);
+        pendingCount.incrementAndGet();
+    }
+
+    private void flushBatch(List<Ack> retries) {
+        // receiver -> message -> earliest ack
+        Map<UUID, Map<UUID, Ack>> acksByReceiver = new LinkedHashMap<>();
+        int drained = 0;
+        Ack ack;
+        while (drained < maxBatch && (ack = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            drained++;
+            acksByReceiver.computeIfAbsent(ack.receiverId(), id -> new HashMap<>())
+                    .merge(ack.messageId(), ack, (a, b) -> a.ackedAt().isAfter(b.ackedAt()) ? b : a);
+        }
+
+        acksByReceiver.forEach((receiverId, acks) -> {
+            try {
+                List<DeliveredMessageView> delivered = messageRepository.markDelivered(receiverId, acks.keySet(), LocalDateTime.now());
+                appliedAcks.increment(delivered.size());
+                ignoredAcks.increment(acks.size() - delivered.size());
+                delivered.forEach(message -> onDelivered(receiverId, message, acks.get(message.getId()).ackedAt()));
+                publishDelivered(delivered);
+            } catch (RuntimeException e) {
+                int attempts = acks.values().stream().mapToInt(Ack::attempts).max().orElse(0) + 1;
+                if (attempts < MAX_ATTEMPTS) {
+                    log.warn("Failed to record {} delivery acks for receiver {}, retrying (attempt {})",
+                            acks.size(), receiverId, attempts, e);
+                    acks.values().forEach(failed -> retries.add(failed.retried()));
+                } else {
+                    log.error("Dropping {} delivery acks for receiver {} after {} attempts",
+                            acks.size(), receiverId, attempts, e);
+                    droppedAcks.increment(acks.size());
+                }
+            }
+        });
+    }
+
+    private void onDelivered(UUID receiverId, DeliveredMessageView message, LocalDateTime ackedAt) {
+        Duration latency = Duration.between(message.getCreatedAt(), ackedAt);
+        if (latency.isNegative()) {
+            // Clock skew between nodes (or the database); counted apart rather than folded into the histogram
+            negativeLatencies.increment();
+            latency = Duration.ZERO;
+        }
+        Timer.builder("message.delivery.latency")
+                .description("Time from a message being stored to the recipient's device acknowledging it")
+                .tag("type", message.getType() == null ? "none" : message.getType())
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(Duration.ofMillis(250), Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofMinutes(1))
+                .maximumExpectedValue(Duration.ofDays(1))
+                .register(meterRegistry)
+                .record(latency);
+
+        Notification notification = Notification.builder()
+                .chatId(message.getChatId())
+                .messageId(message.getId())
+                .senderId(message.getSenderId())
+                .receiverId(receiverId)
+                .notificationType(NotificationType.DELIVERED)
+                .build();
+        notificationService.sendNotification(message.getSenderId(), notification);
+    }
+
+    private void publishDelivered(List<DeliveredMessageView> delivered) {
+        Map<UUID, List<UUID>> idsByChat = delivered.stream().collect(Collectors.groupingBy(
+                DeliveredMessageView::getChatId,
+                Collectors.mapping(DeliveredMessageView::getId, Collectors.toCollection(ArrayList::new))));
+        idsByChat.forEach((chatId, messageIds) -> eventPublisher.publishEvent(new MessagesDeliveredEvent(chatId, messageIds)));
+    }
+
+    private Counter ackCounter(String outcome) {
+        return Counter.builder("message.delivery.acks")
+                .description("Delivery acks by whether they moved a message to DELIVERED or were dropped after failed writes")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Ack(UUID receiverId, UUID messageId, LocalDateTime ackedAt, int attempts) {
+
+        Ack retried() {
+            return new Ack(receiverId, messageId, ackedAt, attempts + 1);
+        }
+    }
+}
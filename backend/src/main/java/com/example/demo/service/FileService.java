@@ -9,6 +9,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.UUID;
@@ -41,8 +42,10 @@ public class FileService {
         String targetFilePath = String.format("%s/%s.%s", finalUploadFilePath, UUID.randomUUID(), fileExtension);
         Path targetPath = Path.of(targetFilePath);
         try {
-            Files.write(targetPath, file.getBytes());
-            log.info("File saved successfully at: {}", targetFilePath);
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, targetPath);
+            }
+            log.debug("File saved successfully at: {}", targetFilePath);
             return targetFilePath;
 
         } catch (IOException e) {
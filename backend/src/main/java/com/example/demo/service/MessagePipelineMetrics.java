@@ -0,0 +1,89 @@
+package com.example.demo.service;
+
+import com.example.demo.model.MessageType;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation for the message pipeline. Every operation is timed end to end as
+ * {@code message.pipeline{operation,type,outcome}} and stage by stage as
+ * {@code message.pipeline.stage{operation,type,stage}}, both with percentile histograms so p95/p99 can be
+ * aggregated in Prometheus. Payload sizes go to {@code message.payload.size{operation,type}}.
+ */
+@Component
+@RequiredArgsConstructor
+public class MessagePipelineMetrics {
+
+    public static final String SAVE = "save";
+    public static final String UPLOAD = "upload";
+    public static final String SEEN = "seen";
+
+    private final MeterRegistry meterRegistry;
+
+    public PipelineTimer start(String operation, MessageType type) {
+        return new PipelineTimer(operation, type == null ? "none" : type.name());
+    }
+
+    public void recordPayload(String operation, MessageType type, long bytes) {
+        DistributionSummary.builder("message.payload.size")
+                .description("Size of message content and media")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .tag("type", type == null ? "none" : type.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    /**
+     * Times one run of an operation. Each {@link #lap(String)} records the time since the previous lap as the named
+     * stage; closing records the whole run, tagged as an error unless {@link #succeeded()} was called.
+     */
+    public class PipelineTimer implements AutoCloseable {
+
+        private final String operation;
+        private final String type;
+        private final long start = System.nanoTime();
+        private long lapStart = start;
+        private boolean succeeded;
+
+        private PipelineTimer(String operation, String type) {
+            this.operation = operation;
+            this.type = type;
+        }
+
+        public void lap(String stage) {
+            final long now = System.nanoTime();
+            Timer.builder("message.pipeline.stage")
+                    .description("Time spent in one stage of the message pipeline")
+                    .tag("operation", operation)
+                    .tag("type", type)
+                    .tag("stage", stage)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(now - lapStart, TimeUnit.NANOSECONDS);
+            lapStart = now;
+        }
+
+        public void succeeded() {
+            succeeded = true;
+        }
+
+        @Override
+        public void close() {
+            Timer.builder("message.pipeline")
+                    .description("End-to-end time of a message pipeline operation")
+                    .tag("operation", operation)
+                    .tag("type", type)
+                    .tag("outcome", succeeded ? "success" : "error")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
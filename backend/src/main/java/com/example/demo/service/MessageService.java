@@ -1,6 +1,9 @@
 package com.example.demo.service;
 
 
+import com.example.demo.cache.HistoryPrefetcher;
+import com.example.demo.cache.RecentMessageBuffer;
+import com.example.demo.event.ChatActivityEvent;
 import com.example.demo.mapper.MessageMapper;
 import com.example.demo.model.*;
 import com.example.demo.repository.ChatRepository;
@@ -8,11 +11,16 @@ import com.example.demo.repository.MessageRepository;
 import com.example.demo.request.MessageRequest;
 import com.example.demo.response.MessageResponse;
 import com.example.demo.util.FileUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
@@ -20,8 +28,17 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 
 @Service
@@ -33,40 +50,53 @@ public class MessageService {
     private final MessageMapper mapper;
     private final FileService fileService;
     private final NotificationService notificationService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RecentMessageBuffer recentMessageBuffer;
+    private final HistoryPrefetcher historyPrefetcher;
+    private final MessagePipelineMetrics pipelineMetrics;
 
     public Message saveMessage(MessageRequest messageRequest) {
-
-        Chat chat = getChatById(messageRequest.getChatId());
-
-        Message newMessage = new Message();
-        newMessage.setContent(messageRequest.getContent());
-        newMessage.setSenderId(messageRequest.getSenderId());
-        newMessage.setReceiverId(messageRequest.getReceiverId());
-        newMessage.setChat(chat);
-        newMessage.setType(messageRequest.getType());
-        newMessage.setState(MessageState.SENT);
-
-        Message message = messageRepository.save(newMessage);
-
-
-        Notification notification = Notification.builder()
-                .chatId(chat.getId())
-                .messageType(messageRequest.getType())
-                .content(messageRequest.getContent())
-                .senderId(messageRequest.getSenderId())
-                .receiverId(messageRequest.getReceiverId())
-                .notificationType(NotificationType.MESSAGE)
-                .chatName(chat.getChatName(newMessage.getSenderId().toString()))
-                .build();
-
-        notificationService.sendNotification(newMessage.getReceiverId(), notification);
-        return message;
-
+        try (MessagePipelineMetrics.PipelineTimer timer = pipelineMetrics.start(MessagePipelineMetrics.SAVE, messageRequest.getType())) {
+            Chat chat = getChatById(messageRequest.getChatId());
+            timer.lap("chat_lookup");
+
+            Message newMessage = new Message();
+            newMessage.setContent(messageRequest.getContent());
+            newMessage.setSenderId(messageRequest.getSenderId());
+            newMessage.setReceiverId(messageRequest.getReceiverId());
+            newMessage.setChat(chat);
+            newMessage.setType(messageRequest.getType());
+            newMessage.setState(MessageState.SENT);
+
+            Message message = messageRepository.save(newMessage);
+            timer.lap("db_insert");
+            eventPublisher.publishEvent(ChatActivityEvent.message(chat, message));
+            timer.lap("cache_update");
+
+            Notification notification = Notification.builder()
+                    .chatId(chat.getId())
+                    .messageId(message.getId())
+                    .messageType(messageRequest.getType())
+                    .content(messageRequest.getContent())
+                    .senderId(messageRequest.getSenderId())
+                    .receiverId(messageRequest.getReceiverId())
+                    .notificationType(NotificationType.MESSAGE)
+                    .chatName(chat.getChatName(newMessage.getSenderId().toString()))
+                    .build();
+
+            notificationService.sendNotification(newMessage.getReceiverId(), notification);
+            timer.lap("notify");
+            pipelineMetrics.recordPayload(MessagePipelineMetrics.SAVE, messageRequest.getType(), utf8Length(messageRequest.getContent()));
+            timer.succeeded();
+            return message;
+        }
     }
 
 
     public List<MessageResponse> findChatMessages(UUID chatId) {
-        log.info("Fetching messages for chat ID: {}", chatId);
+        log.debug("Fetching messages for chat ID: {}", chatId);
         return messageRepository.findMessagesByChatId(chatId).stream().map(mapper::toMessageResponse).toList();
     }
 
@@ -76,29 +106,47 @@ public class MessageService {
 
     @Transactional
     public void setMessageToSeen(UUID chatId, Authentication authentication) {
-        Chat chat = getChatById(chatId);
-
-        final UUID receiverId = getReceiverId(chat, authentication);
-
-        messageRepository.setMessageToSeenByChatId(chatId, MessageState.SEEN);
-        Notification notification = Notification.builder()
-                .chatId(chat.getId())
-                .senderId(getSenderId(chat, authentication))
-                .receiverId(getReceiverId(chat, authentication))
-                .notificationType(NotificationType.SEEN)
-                .build();
-
-        notificationService.sendNotification(receiverId, notification);
-
+        try (MessagePipelineMetrics.PipelineTimer timer = pipelineMetrics.start(MessagePipelineMetrics.SEEN, null)) {
+            Chat chat = getChatById(chatId);
+            timer.lap("chat_lookup");
+
+            final UUID receiverId = getReceiverId(chat, authentication);
+
+            messageRepository.setMessageToSeenByChatId(chatId, MessageState.SEEN);
+            timer.lap("db_update");
+            // Cache updates run after commit, outside this timer
+            eventPublisher.publishEvent(ChatActivityEvent.seen(chat));
+            Notification notification = Notification.builder()
+                    .chatId(chat.getId())
+                    .senderId(getSenderId(chat, authentication))
+                    .receiverId(getReceiverId(chat, authentication))
+                    .notificationType(NotificationType.SEEN)
+                    .build();
+
+            notificationService.sendNotification(receiverId, notification);
+            timer.lap("notify");
+            timer.succeeded();
+        }
     }
 
     public void uploadMediaMessage(UUID chatId, MultipartFile file, Authentication authentication) throws IOException {
+        try (MessagePipelineMetrics.PipelineTimer timer = pipelineMetrics.start(MessagePipelineMetrics.UPLOAD, MessageType.IMAGE)) {
+            uploadMediaMessage(chatId, file, authentication, timer);
+            timer.succeeded();
+        }
+    }
+
+    private void uploadMediaMessage(UUID chatId, MultipartFile file, Authentication authentication,
+                                    MessagePipelineMetrics.PipelineTimer timer) throws IOException {
         Chat chat = getChatById(chatId);
+        timer.lap("chat_lookup");
 
         final UUID senderId = getSenderId(chat, authentication);
         final UUID receiverId = getReceiverId(chat, authentication);
 
         final String filePath = fileService.saveFile(file, senderId);
+        timer.lap("file_write");
+        pipelineMetrics.recordPayload(MessagePipelineMetrics.UPLOAD, MessageType.IMAGE, file.getSize());
 
         Message newMessage = new Message();
         newMessage.setSenderId(senderId);
@@ -107,19 +155,103 @@ public class MessageService {
         newMessage.setType(MessageType.IMAGE);
         newMessage.setState(MessageState.SENT);
         newMessage.setMediaFilePath(filePath);
-        messageRepository.save(newMessage);
+        Message message = messageRepository.save(newMessage);
+        timer.lap("db_insert");
+        eventPublisher.publishEvent(ChatActivityEvent.message(chat, message));
+        timer.lap("cache_update");
 
         Notification notification = Notification.builder()
                 .chatId(chat.getId())
+                .messageId(message.getId())
                 .messageType(MessageType.IMAGE)
                 .notificationType(NotificationType.IMAGE)
                 .senderId(senderId)
                 .receiverId(receiverId)
                 .media(FileUtil.readFileFromLocation(filePath))
                 .build();
+        timer.lap("media_read");
 
         notificationService.sendNotification(receiverId, notification);
+        timer.lap("notify");
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isChatParticipant(UUID chatId, UUID userId) {
+        return chatRepository.findById(chatId)
+                .map(chat -> chat.getSender().getId().equals(userId) || chat.getReceiver().getId().equals(userId))
+                .orElse(false);
+    }
+
+    /**
+     * Writes the whole history of a chat, oldest first, as newline-delimited JSON or as a zip holding
+     * {@code messages.ndjson} plus one {@code media/} entry per attachment. Messages are read through a database
+     * cursor and detached after being written, so memory use does not depend on the length of the chat.
+     */
+    @Transactional(readOnly = true)
+    public void exportChat(UUID chatId, ExportFormat format, OutputStream out) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writeNdjson(chatId, out);
+            return;
+        }
 
+        ZipOutputStream zip = new ZipOutputStream(out);
+        zip.putNextEntry(new ZipEntry("messages.ndjson"));
+        writeNdjson(chatId, zip);
+        zip.closeEntry();
+
+        try (Stream<Message> mediaMessages = messageRepository.streamMediaByChatId(chatId)) {
+            forEachDetached(mediaMessages, message -> {
+                Path mediaPath = Path.of(message.getMediaFilePath());
+                if (!Files.isReadable(mediaPath)) {
+                    log.warn("Skipping missing media file for message {}", message.getId());
+                    return;
+                }
+                try {
+                    zip.putNextEntry(new ZipEntry(getExportMediaFile(message)));
+                    Files.copy(mediaPath, zip);
+                    zip.closeEntry();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        zip.finish();
+    }
+
+    private void writeNdjson(UUID chatId, OutputStream out) throws IOException {
+        final ObjectWriter writer = objectMapper.writer();
+        try (Stream<Message> messages = messageRepository.streamByChatId(chatId)) {
+            forEachDetached(messages, message -> {
+                try {
+                    out.write(writer.writeValueAsBytes(mapper.toMessageExportResponse(message, getExportMediaFile(message))));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        out.flush();
+    }
+
+    private void forEachDetached(Stream<Message> messages, Consumer<Message> action) throws IOException {
+        try {
+            messages.forEach(message -> {
+                action.accept(message);
+                entityManager.detach(message);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private String getExportMediaFile(Message message) {
+        if (message.getMediaFilePath() == null) {
+            return null;
+        }
+        String fileName = Path.of(message.getMediaFilePath()).getFileName().toString();
+        int lastDotIndex = fileName.lastIndexOf('.');
+        String extension = lastDotIndex == -1 ? "" : fileName.substring(lastDotIndex);
+        return "media/" + message.getId() + extension;
     }
 
     private UUID getSenderId(Chat chat, Authentication authentication) {
@@ -136,18 +268,45 @@ public class MessageService {
         return chat.getSender().getId();
     }
 
+    private static long utf8Length(String content) {
+        return content == null ? 0 : content.getBytes(StandardCharsets.UTF_8).length;
+    }
+
     private Chat getChatById(UUID chatId) {
         return chatRepository.findById(chatId).orElseThrow(() -> new EntityNotFoundException("Chat not found with ID: " + chatId));
     }
 
 
+    /**
+     * Full-text search over the caller's messages, optionally limited to one chat. Results are ranked by relevance,
+     * so any sort order requested by the client is ignored.
+     */
+    @Transactional(readOnly = true)
+    public Page<MessageResponse> searchMessages(String query, MessageRequest messageRequest) {
+        final UUID userId = messageRequest.getUser().getId();
+        Pageable pageable = messageRequest.getPageable();
+        Pageable rankedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+
+        Page<Message> matches = messageRequest.getChatId() != null
+                ? messageRepository.searchInChat(messageRequest.getChatId(), userId, query, rankedPageable)
+                : messageRepository.searchForUser(userId, query, rankedPageable);
+        return matches.map(mapper::toMessageResponse);
+    }
+
     public Page<MessageResponse> findChatMessages(MessageRequest messageRequest) {
         log.debug("Fetching messages on thread: {}", Thread.currentThread().getName());
-        Pageable pageable = messageRequest.getPageable();
-        Page<Message> pageMessages = messageRepository.findAllByChatIdOrderByCreatedAtDesc(messageRequest.getChatId(), pageable);
+        final UUID chatId = messageRequest.getChatId();
+        final Pageable pageable = messageRequest.getPageable();
+        Page<MessageResponse> page = recentMessageBuffer.getPage(chatId, pageable, () ->
+                historyPrefetcher.take(chatId, pageable).orElseGet(() -> loadChatMessages(chatId, pageable)));
+        historyPrefetcher.prefetchNext(chatId, page, this::loadChatMessages);
+        return page;
+    }
+
+    private Page<MessageResponse> loadChatMessages(UUID chatId, Pageable pageable) {
+        Page<Message> pageMessages = messageRepository.findAllByChatIdOrderByCreatedAtDesc(chatId, pageable);
         List<MessageResponse> messageResponses = pageMessages.getContent().stream().map(mapper::toMessageResponse).toList();
-        Page<MessageResponse> responsePage = new PageImpl<>(messageResponses, pageable, pageMessages.getTotalElements());
-        return responsePage;
+        return new PageImpl<>(messageResponses, pageable, pageMessages.getTotalElements());
     }
 
 
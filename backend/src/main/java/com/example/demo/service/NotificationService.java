@@ -1,11 +1,16 @@
 package com.example.demo.service;
 
 import com.example.demo.model.Notification;
+import com.example.demo.util.LogSafe;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 @Service
@@ -14,9 +19,32 @@ import java.util.UUID;
 public class NotificationService {
 
     private final SimpMessagingTemplate simpMessagingTemplate;
+    private final MeterRegistry meterRegistry;
 
     public void sendNotification(UUID userId, Notification notification) {
-        log.info("Sending notification to user: {} with payload: {}", userId, notification);
-        simpMessagingTemplate.convertAndSendToUser(userId.toString(), "/chat", notification);
+        if (log.isDebugEnabled()) {
+            log.debug("Sending notification to user: {} with payload: {}", userId, LogSafe.summary(notification));
+        }
+        final String type = notification.getNotificationType() == null ? "none" : notification.getNotificationType().name();
+
+        Timer.builder("notification.send")
+                .description("Time to convert and fan out a notification to the user's sessions")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(() -> simpMessagingTemplate.convertAndSendToUser(userId.toString(), "/chat", notification));
+
+        DistributionSummary.builder("notification.payload.size")
+                .description("Size of notification content and media")
+                .baseUnit("bytes")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(payloadSize(notification));
+    }
+
+    private static long payloadSize(Notification notification) {
+        long bytes = notification.getContent() == null ? 0 : notification.getContent().getBytes(StandardCharsets.UTF_8).length;
+        return bytes + (notification.getMedia() == null ? 0 : notification.getMedia().length);
     }
 }
@@ -0,0 +1,92 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.RateLimitExceededException;
+import com.example.demo.model.RateLimitClass;
+import com.example.demo.util.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-user token buckets, one per {@link RateLimitClass}. Buckets are created on first use and dropped once the user
+ * has been idle longer than it takes any bucket to refill, at which point a fresh bucket is equivalent.
+ * <p>
+ * Limits are configured as {@code application.rate-limit.<class>.capacity} (burst size) and
+ * {@code application.rate-limit.<class>.refill-per-second}.
+ */
+@Service
+public class RateLimiterService {
+
+    private static final String METRIC_NAME = "rate.limit.requests";
+
+    private final Map<RateLimitClass, Limit> limits = new EnumMap<>(RateLimitClass.class);
+    private final Cache<BucketKey, TokenBucket> buckets;
+
+    public RateLimiterService(MeterRegistry meterRegistry,
+                              @Value("${application.rate-limit.send.capacity:20}") int sendCapacity,
+                              @Value("${application.rate-limit.send.refill-per-second:5}") double sendRefillPerSecond,
+                              @Value("${application.rate-limit.upload.capacity:5}") int uploadCapacity,
+                              @Value("${application.rate-limit.upload.refill-per-second:0.5}") double uploadRefillPerSecond,
+                              @Value("${application.rate-limit.read.capacity:60}") int readCapacity,
+                              @Value("${application.rate-limit.read.refill-per-second:20}") double readRefillPerSecond,
+                              @Value("${application.rate-limit.max-buckets:1000000}") long maxBuckets) {
+        limits.put(RateLimitClass.SEND, limit(meterRegistry, RateLimitClass.SEND, sendCapacity, sendRefillPerSecond));
+        limits.put(RateLimitClass.UPLOAD, limit(meterRegistry, RateLimitClass.UPLOAD, uploadCapacity, uploadRefillPerSecond));
+        limits.put(RateLimitClass.READ, limit(meterRegistry, RateLimitClass.READ, readCapacity, readRefillPerSecond));
+
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    /**
+     * Takes a token from the principal's bucket for {@code limitClass}.
+     *
+     * @throws RateLimitExceededException if the bucket is empty
+     */
+    public void acquire(String principal, RateLimitClass limitClass) {
+        final Limit limit = limits.get(limitClass);
+        final TokenBucket bucket = buckets.get(new BucketKey(principal, limitClass),
+                key -> new TokenBucket(limit.capacity(), limit.refillPerSecond()));
+
+        final long waitNanos = bucket.tryAcquire();
+        if (waitNanos > 0) {
+            limit.rejected().increment();
+            throw new RateLimitExceededException(limitClass, Duration.ofNanos(waitNanos));
+        }
+        limit.admitted().increment();
+    }
+
+    private static Limit limit(MeterRegistry meterRegistry, RateLimitClass limitClass, int capacity, double refillPerSecond) {
+        // Buckets are created on first use; check the rate here so a bad setting fails startup, not requests
+        if (!(refillPerSecond > 0)) {
+            throw new IllegalArgumentException("application.rate-limit." + limitClass.name().toLowerCase()
+                    + ".refill-per-second must be positive: " + refillPerSecond);
+        }
+        return new Limit(capacity, refillPerSecond,
+                counter(meterRegistry, limitClass, "admitted"),
+                counter(meterRegistry, limitClass, "rejected"));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, RateLimitClass limitClass, String outcome) {
+        return Counter.builder(METRIC_NAME)
+                .description("Requests checked against per-user rate limits")
+                .tag("class", limitClass.name().toLowerCase())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Limit(int capacity, double refillPerSecond, Counter admitted, Counter rejected) {
+    }
+
+    private record BucketKey(String principal, RateLimitClass limitClass) {
+    }
+}
@@ -1,17 +1,27 @@
 package com.example.demo.service;
 
+import com.example.demo.constant.CommonConstant;
+import com.example.demo.event.UserProfileChangedEvent;
 import com.example.demo.mapper.UserMapper;
+import com.example.demo.model.Chat;
+import com.example.demo.model.DirectoryCursor;
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.projection.UserDirectoryView;
+import com.example.demo.response.DirectoryResponse;
 import com.example.demo.response.UserResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -27,6 +37,12 @@ public class UserService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -53,6 +69,43 @@ public class UserService {
                 .map(userMapper::toUserResponse).toList();
     }
 
+    /**
+     * Returns one page of the contact directory ordered by name, optionally restricted to users whose first name,
+     * last name or email starts with {@code query}. Pages are addressed by the opaque cursor of the previous page.
+     */
+    public DirectoryResponse getDirectory(Authentication authentication, String query, String cursor, int size) {
+        final int pageSize = Math.min(Math.max(size, 1), CommonConstant.DIRECTORY_MAX_SIZE);
+        final DirectoryCursor after = cursor == null || cursor.isBlank() ? DirectoryCursor.START : DirectoryCursor.decode(cursor);
+
+        List<UserDirectoryView> rows = userRepository.findDirectoryPage(UUID.fromString(authentication.getName()),
+                toPrefixPattern(query), after.firstName(), after.lastName(), after.id(), pageSize + 1);
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            UserDirectoryView last = rows.get(pageSize - 1);
+            nextCursor = new DirectoryCursor(last.getSortFirstName(), last.getSortLastName(), last.getId()).encode();
+        }
+
+        return DirectoryResponse.builder()
+                .users(rows.stream().map(userMapper::toUserResponse).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private String toPrefixPattern(String query) {
+        if (query == null || query.isBlank()) {
+            return "%";
+        }
+        return escapeLike(query.trim().toLowerCase(Locale.ROOT)) + "%";
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
     public User updateUser(UUID id, User userDetails) {
         return userRepository.findById(id)
                 .map(user -> {
@@ -61,13 +114,21 @@ public class UserService {
                     user.setEmail(userDetails.getEmail());
                     user.setRoles(userDetails.getRoles());
                     user.setIsActive(userDetails.getIsActive());
-                    return userRepository.save(user);
+                    User savedUser = userRepository.save(user);
+                    evictUserFromCache(id);
+                    eventPublisher.publishEvent(new UserProfileChangedEvent(id));
+                    return savedUser;
                 })
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
 
     public void deleteUser(UUID id) {
         userRepository.deleteById(id);
+        evictUserFromCache(id);
+        // Chats reference their participants, so cached chats and chat-pair lookups may point at the deleted user
+        entityManagerFactory.getCache().evict(Chat.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+        eventPublisher.publishEvent(new UserProfileChangedEvent(id));
         logger.info("Deleted user with id: {}", id);
     }
 
@@ -106,7 +167,8 @@ public class UserService {
 
             if (updated) {
                 user = userRepository.save(user);
-                logger.info("Updated user from Keycloak: {}", username);
+                eventPublisher.publishEvent(new UserProfileChangedEvent(user.getId()));
+                logger.debug("Updated user from Keycloak: {}", keycloakId);
             }
 
             return user;
@@ -119,19 +181,28 @@ public class UserService {
             newUser.setKeycloakId(keycloakId);
             newUser.setRoles(Set.of(User.Role.USER)); // Default role
             newUser = userRepository.save(newUser);
-            logger.info("Created new user from Keycloak: {}", username);
+            logger.info("Created new user from Keycloak: {}", keycloakId);
             return newUser;
         }
     }
 
-    public List<User> searchUsers(String searchTerm) {
-        return userRepository.findByFirstNameContainingOrLastNameContaining(searchTerm);
+    /**
+     * Case-insensitive substring search on the full name, backed by a trigram index and ranked by similarity.
+     */
+    public List<User> searchUsers(String searchTerm, int limit) {
+        final String term = searchTerm.trim().toLowerCase(Locale.ROOT);
+        final int maxResults = Math.min(Math.max(limit, 1), CommonConstant.SEARCH_MAX_RESULTS);
+        return userRepository.searchByName(term, "%" + escapeLike(term) + "%", maxResults);
     }
 
     public List<User> getUsersByRole(User.Role role) {
         return userRepository.findByRole(role);
     }
 
+    public long countUsersByRole(User.Role role) {
+        return userRepository.countByRole(role);
+    }
+
     public List<User> getActiveUsers() {
         return userRepository.findByIsActive(true);
     }
@@ -143,4 +214,8 @@ public class UserService {
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
+
+    private void evictUserFromCache(UUID id) {
+        entityManagerFactory.getCache().evict(User.class, id);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.example.demo.util;
+
+import com.example.demo.model.Notification;
+import com.example.demo.model.User;
+
+/**
+ * Renders domain objects for log lines without their payload: message content and media are reduced to their size,
+ * emails are masked and free text is truncated. Use these instead of passing entities or DTOs to a logger, whose
+ * {@code toString()} may include user content or, for entities, trigger lazy loading.
+ */
+public final class LogSafe {
+
+    public static final int MAX_TEXT_LENGTH = 64;
+
+    private LogSafe() {
+    }
+
+    /**
+     * Caps user-supplied text such as search terms at {@link #MAX_TEXT_LENGTH} characters.
+     */
+    public static String truncate(String value) {
+        return truncate(value, MAX_TEXT_LENGTH);
+    }
+
+    public static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        int end = maxLength;
+        if (Character.isHighSurrogate(value.charAt(end - 1))) {
+            end--;
+        }
+        return value.substring(0, end) + "...(+" + (value.length() - end) + " chars)";
+    }
+
+    /**
+     * Keeps the first character of the local part and the domain: {@code j***@example.com}.
+     */
+    public static String email(String email) {
+        if (email == null) {
+            return null;
+        }
+        final int at = email.indexOf('@');
+        if (at <= 0) {
+            return "***";
+        }
+        return email.charAt(0) + "***" + email.substring(at);
+    }
+
+    /**
+     * Message text is never logged, only its length.
+     */
+    public static String content(String content) {
+        return content == null ? "none" : content.length() + " chars";
+    }
+
+    public static String bytes(byte[] bytes) {
+        return bytes == null ? "none" : bytes.length + " bytes";
+    }
+
+    public static String summary(Notification notification) {
+        if (notification == null) {
+            return null;
+        }
+        return "Notification[type=" + notification.getNotificationType()
+                + ", chatId=" + notification.getChatId()
+                + ", messageId=" + notification.getMessageId()
+                + ", senderId=" + notification.getSenderId()
+                + ", receiverId=" + notification.getReceiverId()
+                + ", content=" + content(notification.getContent())
+                + ", media=" + bytes(notification.getMedia()) + "]";
+    }
+
+    public static String summary(User user) {
+        if (user == null) {
+            return null;
+        }
+        return "User[id=" + user.getId() + ", email=" + email(user.getEmail()) + "]";
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is the theoretical arrival time of the next request, kept
+ * in one {@link AtomicLong} and advanced with compare-and-set. It admits bursts of up to {@code capacity} requests and
+ * refills at {@code refillPerSecond}.
+ */
+public class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(int capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(int capacity, double refillPerSecond, LongSupplier nanoClock) {
+        if (!(refillPerSecond > 0)) {
+            throw new IllegalArgumentException("Token bucket refill rate must be positive: " + refillPerSecond);
+        }
+        this.nanoClock = nanoClock;
+        this.emissionIntervalNanos = Math.max(1, (long) (NANOS_PER_SECOND / refillPerSecond));
+        this.burstToleranceNanos = (Math.max(capacity, 1) - 1) * emissionIntervalNanos;
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 if the request is admitted, otherwise the nanoseconds until a token will be available
+     */
+    public long tryAcquire() {
+        while (true) {
+            final long now = nanoClock.getAsLong();
+            final long current = theoreticalArrival.get();
+            final long arrival = Math.max(current, now);
+            final long wait = arrival - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, arrival + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered UUIDs following the version 7 layout of RFC 9562.
+ * <p>
+ * The 48 most significant bits hold the Unix epoch in milliseconds and the 12 bit
+ * {@code rand_a} field is used as a counter, so identifiers created by this JVM are
+ * strictly increasing even within the same millisecond. New rows therefore land on
+ * the right-most leaf of a B-tree primary key instead of a random page.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long VARIANT_IETF = 0x8000000000000000L;
+
+    // (timestamp << 12) | counter of the last issued identifier
+    private static final AtomicLong LAST_STATE = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID randomUUID() {
+        final long now = System.currentTimeMillis() << COUNTER_BITS;
+        // When the clock has not advanced (or went backwards) keep counting from the last value;
+        // an exhausted counter carries into the timestamp, which keeps ordering intact.
+        final long state = LAST_STATE.updateAndGet(last -> now > last ? now : last + 1);
+
+        final long timestamp = state >>> COUNTER_BITS;
+        final long counter = state & COUNTER_MASK;
+        final long mostSigBits = (timestamp << 16) | VERSION_7 | counter;
+        final long leastSigBits = (RANDOM.nextLong() & VARIANT_MASK) | VARIANT_IETF;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.ws;
+
+import com.example.demo.model.RateLimitClass;
+import com.example.demo.service.RateLimiterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the HTTP limits to inbound STOMP SEND frames: delivery acks draw from the user's read bucket, every other
+ * frame from the send bucket shared with {@code POST /api/v1/messages}. Frames from connections without a principal
+ * are keyed by session. A rejected frame makes the broker answer with an ERROR frame carrying the retry delay.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitChannelInterceptor implements ChannelInterceptor {
+
+    private static final String DELIVERY_ACK_DESTINATION = "/messages/delivered";
+
+    private final RateLimiterService rateLimiterService;
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor != null && StompCommand.SEND.equals(accessor.getCommand())) {
+            final String key = accessor.getUser() != null ? accessor.getUser().getName() : "session:" + accessor.getSessionId();
+            final boolean deliveryAck = accessor.getDestination() != null && accessor.getDestination().endsWith(DELIVERY_ACK_DESTINATION);
+            rateLimiterService.acquire(key, deliveryAck ? RateLimitClass.READ : RateLimitClass.SEND);
+        }
+        return message;
+    }
+}
@@ -0,0 +1,77 @@
+-- Idempotent schema additions that JPA annotations cannot express (expression, operator-class and
+-- partial indexes, extensions). Runs after Hibernate's schema update (spring.jpa.defer-datasource-initialization).
+-- The file is sent to Postgres as one script (spring.sql.init.separator), so DO $$ blocks can be used for changes
+-- that must only run once.
+
+-- User directory: keyset ordering and case-insensitive prefix search
+CREATE INDEX IF NOT EXISTS idx_users_directory_order
+    ON users (lower(coalesce(first_name, '')), lower(coalesce(last_name, '')), id);
+CREATE INDEX IF NOT EXISTS idx_users_first_name_prefix ON users (lower(first_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_last_name_prefix ON users (lower(last_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_prefix ON users (lower(email) text_pattern_ops);
+
+-- Admin user search: substring match on the full name, ranked by trigram similarity
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_users_full_name_trgm
+    ON users USING gin (lower(coalesce(first_name, '') || ' ' || coalesce(last_name, '')) gin_trgm_ops);
+
+-- User roles moved from the user_roles element-collection table to the users.roles_mask bitmask. Copies the
+-- existing roles and drops the old table, once; the advisory lock keeps instances that start together from
+-- migrating twice.
+DO $$
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('user_roles_migration'));
+    IF to_regclass('user_roles') IS NOT NULL THEN
+        UPDATE users u
+        SET roles_mask = r.mask
+        FROM (SELECT user_id,
+                     bit_or(CASE roles WHEN 'USER' THEN 1 WHEN 'ADMIN' THEN 2 WHEN 'MODERATOR' THEN 4 ELSE 0 END) AS mask
+              FROM user_roles
+              GROUP BY user_id) r
+        WHERE u.id = r.user_id;
+        DROP TABLE user_roles;
+    END IF;
+END
+$$;
+
+-- Role lookups on the roles_mask bitmask (USER = 1, ADMIN = 2, MODERATOR = 4). Almost every user has only USER,
+-- so the rare roles get small partial indexes; USER lookups match nearly the whole table and scan it anyway.
+CREATE INDEX IF NOT EXISTS idx_users_role_admin ON users (id) WHERE (roles_mask & 2) <> 0;
+CREATE INDEX IF NOT EXISTS idx_users_role_moderator ON users (id) WHERE (roles_mask & 4) <> 0;
+
+-- Message full-text search. The tsvector is a stored generated column, so Postgres maintains it on every
+-- insert/update without any application code. Adding it rewrites the messages table once.
+-- btree_gin lets chat_id share the GIN index, which serves both per-chat and cross-chat searches.
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+ALTER TABLE messages ADD COLUMN IF NOT EXISTS content_tsv tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(content, ''))) STORED;
+CREATE INDEX IF NOT EXISTS idx_messages_chat_content_tsv ON messages USING gin (chat_id, content_tsv);
+
+-- Canonical participant pair for chats. Older rows are backfilled; if a pair already has several chats only the
+-- oldest one becomes canonical, the duplicates keep a NULL pair and stay readable through sender/receiver.
+UPDATE chats c
+SET participant_low  = LEAST(c.sender_id, c.receiver_id),
+    participant_high = GREATEST(c.sender_id, c.receiver_id)
+WHERE c.participant_low IS NULL
+  AND NOT EXISTS (SELECT 1
+                  FROM chats d
+                  WHERE LEAST(d.sender_id, d.receiver_id) = LEAST(c.sender_id, c.receiver_id)
+                    AND GREATEST(d.sender_id, d.receiver_id) = GREATEST(c.sender_id, c.receiver_id)
+                    AND (d.created_date, d.id) < (c.created_date, c.id));
+CREATE UNIQUE INDEX IF NOT EXISTS uk_chats_participant_pair ON chats (participant_low, participant_high);
+
+-- Message states: Hibernate creates a CHECK constraint for enum columns but never widens it on update, so
+-- re-create it once for DELIVERED, which was added after the table existed. Adding the constraint checks every
+-- message under an exclusive lock, so it must not run again once the constraint is current.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1
+                   FROM pg_constraint
+                   WHERE conrelid = 'messages'::regclass
+                     AND conname = 'messages_state_check'
+                     AND pg_get_constraintdef(oid) LIKE '%DELIVERED%') THEN
+        ALTER TABLE messages DROP CONSTRAINT IF EXISTS messages_state_check;
+        ALTER TABLE messages ADD CONSTRAINT messages_state_check CHECK (state IN ('SENT', 'DELIVERED', 'SEEN'));
+    END IF;
+END
+$$;
@@ -0,0 +1,227 @@
+package com.example.demo.perf;
+
+import com.example.demo.perf.PerfDataSeeder.PerfChat;
+import com.example.demo.perf.PerfDataSeeder.PerfUser;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Performance regression suite for the hot endpoints, run by {@code mvn -Pperf verify} against a throwaway
+ * Postgres seeded with a realistic volume (by default 10k users, 50k chats and 1M messages; override with
+ * {@code -Dperf.users}, {@code -Dperf.chats-per-user} and {@code -Dperf.messages}).
+ * <p>
+ * Each endpoint gets two checks, both counted with Hibernate statistics and made on cache-cold fixtures:
+ * <ul>
+ *     <li>the number of SQL statements must not grow with the data behind the request (one chat vs many chats,
+ *     a short history vs a long one), which is what an N+1 or an accidental eager collection looks like;</li>
+ *     <li>the number must stay within a fixed ceiling that includes the per-request user synchronisation.</li>
+ * </ul>
+ * Read endpoints also have a p95 latency budget over cold requests for different users, tunable with
+ * {@code -Dperf.budget.read-p95-ms} and {@code -Dperf.budget.write-p95-ms} for slower CI machines.
+ */
+@SpringBootTest(properties = {
+        // Prefetching runs on another thread and would leak its statements into the next measurement
+        "application.history-prefetch.min-page=2147483647",
+        "application.rate-limit.read.capacity=100000",
+        "application.rate-limit.send.capacity=100000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointPerfIT {
+
+    private static final int USERS = Integer.getInteger("perf.users", 10_000);
+    private static final int CHATS_PER_USER = Integer.getInteger("perf.chats-per-user", 10);
+    private static final int MESSAGES = Integer.getInteger("perf.messages", 1_000_000);
+    private static final int LONG_HISTORY = Integer.getInteger("perf.long-history", 100_000);
+    private static final long READ_P95_MILLIS = Long.getLong("perf.budget.read-p95-ms", 150);
+    private static final long WRITE_P95_MILLIS = Long.getLong("perf.budget.write-p95-ms", 250);
+
+    private static final int READ_STATEMENTS = 12;
+    private static final int WRITE_STATEMENTS = 20;
+    private static final int MANY_CHATS = 50;
+    private static final int WARMUP_REQUESTS = 50;
+    private static final int LATENCY_SAMPLES = 100;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private PerfDataSeeder seeder;
+    private Statistics statistics;
+
+    @BeforeAll
+    void seed() {
+        seeder = new PerfDataSeeder(jdbcTemplate);
+        seeder.seed(USERS, CHATS_PER_USER, MESSAGES);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertThat(statistics.isStatisticsEnabled()).as("hibernate.generate_statistics").isTrue();
+    }
+
+    @Test
+    void chatListStatementsDoNotGrowWithChatCount() throws Exception {
+        final long oneChat = statements(chatList(seeder.userWithChats(1, 5)));
+        final long manyChats = statements(chatList(seeder.userWithChats(MANY_CHATS, 5)));
+
+        assertThat(manyChats).as("statements for %d chats vs 1 chat", MANY_CHATS).isEqualTo(oneChat);
+        assertThat(manyChats).isLessThanOrEqualTo(READ_STATEMENTS);
+    }
+
+    @Test
+    void bootstrapStatementsDoNotGrowWithChatCount() throws Exception {
+        final long oneChat = statements(bootstrap(seeder.userWithChats(1, 30)));
+        final long manyChats = statements(bootstrap(seeder.userWithChats(MANY_CHATS, 30)));
+
+        assertThat(manyChats).as("statements for %d chats vs 1 chat", MANY_CHATS).isEqualTo(oneChat);
+        assertThat(manyChats).isLessThanOrEqualTo(READ_STATEMENTS);
+    }
+
+    @Test
+    void historyStatementsDoNotGrowWithHistoryLength() throws Exception {
+        final long shortHistory = statements(history(seeder.chat(10)));
+        final long longHistory = statements(history(seeder.chat(LONG_HISTORY)));
+
+        assertThat(longHistory).as("statements for %d messages vs 10", LONG_HISTORY).isEqualTo(shortHistory);
+        assertThat(longHistory).isLessThanOrEqualTo(READ_STATEMENTS);
+    }
+
+    @Test
+    void sendStatementsDoNotGrowWithHistoryLength() throws Exception {
+        final long shortHistory = statements(send(seeder.chat(10)));
+        final long longHistory = statements(send(seeder.chat(LONG_HISTORY)));
+
+        assertThat(longHistory).as("statements for %d messages vs 10", LONG_HISTORY).isEqualTo(shortHistory);
+        assertThat(longHistory).isLessThanOrEqualTo(WRITE_STATEMENTS);
+    }
+
+    @Test
+    void markSeenStatementsDoNotGrowWithHistoryLength() throws Exception {
+        final long shortHistory = statements(markSeen(seeder.chat(10)));
+        final long longHistory = statements(markSeen(seeder.chat(LONG_HISTORY)));
+
+        assertThat(longHistory).as("statements for %d messages vs 10", LONG_HISTORY).isEqualTo(shortHistory);
+        assertThat(longHistory).isLessThanOrEqualTo(WRITE_STATEMENTS);
+    }
+
+    @Test
+    void chatListLatencyWithinBudget() throws Exception {
+        assertThat(p95Millis(seeder.sampleUsers(WARMUP_REQUESTS + LATENCY_SAMPLES), this::chatList))
+                .as("chat list p95 ms").isLessThanOrEqualTo(READ_P95_MILLIS);
+    }
+
+    @Test
+    void historyLatencyWithinBudget() throws Exception {
+        assertThat(p95Millis(seeder.sampleChats(WARMUP_REQUESTS + LATENCY_SAMPLES), this::history))
+                .as("history page p95 ms").isLessThanOrEqualTo(READ_P95_MILLIS);
+    }
+
+    @Test
+    void sendLatencyWithinBudget() throws Exception {
+        assertThat(p95Millis(seeder.sampleChats(WARMUP_REQUESTS + LATENCY_SAMPLES), this::send))
+                .as("send p95 ms").isLessThanOrEqualTo(WRITE_P95_MILLIS);
+    }
+
+    private RequestBuilder chatList(PerfUser user) {
+        return get("/api/v1/chats").with(as(user));
+    }
+
+    private RequestBuilder bootstrap(PerfUser user) {
+        return get("/api/v1/chats/bootstrap").with(as(user));
+    }
+
+    private RequestBuilder history(PerfChat chat) {
+        return get("/api/v1/messages/chats/{chatId}", chat.id()).param("page", "0").param("size", "50").with(as(chat.sender()));
+    }
+
+    private RequestBuilder send(PerfChat chat) {
+        return post("/api/v1/messages")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"chatId":"%s","senderId":"%s","receiverId":"%s","content":"perf","type":"TEXT"}
+                        """.formatted(chat.id(), chat.sender().id(), chat.receiver().id()))
+                .with(as(chat.sender()));
+    }
+
+    private RequestBuilder markSeen(PerfChat chat) {
+        return patch("/api/v1/messages").param("chatId", chat.id().toString()).with(as(chat.sender()));
+    }
+
+    private static RequestPostProcessor as(PerfUser user) {
+        return jwt().jwt(token -> token
+                .subject(user.id().toString())
+                .claim("email", user.email())
+                .claim("given_name", user.firstName())
+                .claim("family_name", user.lastName()));
+    }
+
+    private long statements(RequestBuilder request) throws Exception {
+        statistics.clear();
+        perform(request);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private <T> long p95Millis(List<T> targets, Function<T, RequestBuilder> request) throws Exception {
+        for (T target : targets.subList(0, WARMUP_REQUESTS)) {
+            perform(request.apply(target));
+        }
+        List<Long> millis = new ArrayList<>(LATENCY_SAMPLES);
+        for (T target : targets.subList(WARMUP_REQUESTS, targets.size())) {
+            final long start = System.nanoTime();
+            perform(request.apply(target));
+            millis.add((System.nanoTime() - start) / 1_000_000);
+        }
+        Collections.sort(millis);
+        return millis.get((int) Math.ceil(millis.size() * 0.95) - 1);
+    }
+
+    private void perform(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result.getAsyncResult();
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().is2xxSuccessful());
+        } else {
+            assertThat(result.getResponse().getStatus()).as("status of %s", result.getRequest().getRequestURI()).isBetween(200, 299);
+        }
+    }
+}
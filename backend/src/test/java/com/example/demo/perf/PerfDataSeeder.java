@@ -0,0 +1,130 @@
+package com.example.demo.perf;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk-loads the perf data set with set-based SQL ({@code generate_series}), which is orders of magnitude faster
+ * than going through JPA and leaves the application caches cold. Background users are named {@code perf-<n>}, while
+ * fixture users get a random tag so every test can create fresh, cache-cold fixtures.
+ */
+class PerfDataSeeder {
+
+    record PerfUser(UUID id, String email, String firstName, String lastName) {
+    }
+
+    record PerfChat(UUID id, PerfUser sender, PerfUser receiver) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    PerfDataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Background volume: {@code users} users, {@code chatsPerUser} chats per user on average and {@code messages}
+     * messages spread evenly over all chats, a quarter of them unread.
+     */
+    void seed(int users, int chatsPerUser, int messages) {
+        jdbcTemplate.update("""
+                INSERT INTO users (id, email, first_name, last_name, keycloak_id, is_active, roles_mask, last_seen, created_date, last_modified_date)
+                SELECT gen_random_uuid(), 'perf-' || g || '@example.com', 'First' || g, 'Last' || g, NULL, true, 1,
+                       now() - make_interval(mins => g % 600), now(), now()
+                FROM generate_series(1, ?) g
+                """, users);
+        jdbcTemplate.update("""
+                WITH u AS (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM users WHERE email LIKE 'perf-%')
+                INSERT INTO chats (id, sender_id, receiver_id, participant_low, participant_high, created_date, last_modified_date)
+                SELECT gen_random_uuid(), a.id, b.id, LEAST(a.id, b.id), GREATEST(a.id, b.id), now(), now()
+                FROM generate_series(0, ? - 1) g
+                JOIN u a ON a.n = g % ?
+                JOIN u b ON b.n = (g % ? + 1 + g / ?) % ?
+                ON CONFLICT DO NOTHING
+                """, users * chatsPerUser / 2, users, users, users, users);
+        final int chats = jdbcTemplate.queryForObject("SELECT count(*) FROM chats", Integer.class);
+        jdbcTemplate.update("""
+                WITH c AS (SELECT id, sender_id, receiver_id, row_number() OVER (ORDER BY id) - 1 AS n FROM chats)
+                INSERT INTO messages (id, content, state, type, chat_id, sender_id, receiver_id, created_date, last_modified_date)
+                SELECT gen_random_uuid(), 'Seeded message number ' || g,
+                       CASE WHEN g % 4 = 0 THEN 'SENT' ELSE 'SEEN' END, 'TEXT', c.id,
+                       CASE WHEN g % 2 = 0 THEN c.sender_id ELSE c.receiver_id END,
+                       CASE WHEN g % 2 = 0 THEN c.receiver_id ELSE c.sender_id END,
+                       now() - make_interval(secs => ? - g), now()
+                FROM generate_series(1, ?) g
+                JOIN c ON c.n = g % ?
+                """, messages, messages, chats);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    PerfUser user() {
+        final String tag = UUID.randomUUID().toString().substring(0, 8);
+        final PerfUser user = new PerfUser(UUID.randomUUID(), "fixture-" + tag + "@example.com", "Fixture", tag);
+        jdbcTemplate.update("""
+                INSERT INTO users (id, email, first_name, last_name, is_active, roles_mask, last_seen, created_date, last_modified_date)
+                VALUES (?, ?, ?, ?, true, 1, now(), now(), now())
+                """, user.id(), user.email(), user.firstName(), user.lastName());
+        return user;
+    }
+
+    /**
+     * A fresh user with {@code count} chats, each holding {@code messagesPerChat} messages.
+     */
+    PerfUser userWithChats(int count, int messagesPerChat) {
+        final PerfUser owner = user();
+        for (int i = 0; i < count; i++) {
+            chat(owner, user(), messagesPerChat);
+        }
+        return owner;
+    }
+
+    PerfChat chat(int messages) {
+        return chat(user(), user(), messages);
+    }
+
+    PerfChat chat(PerfUser sender, PerfUser receiver, int messages) {
+        final UUID chatId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO chats (id, sender_id, receiver_id, participant_low, participant_high, created_date, last_modified_date)
+                VALUES (?, ?, ?, LEAST(?::uuid, ?::uuid), GREATEST(?::uuid, ?::uuid), now(), now())
+                """, chatId, sender.id(), receiver.id(), sender.id(), receiver.id(), sender.id(), receiver.id());
+        jdbcTemplate.update("""
+                INSERT INTO messages (id, content, state, type, chat_id, sender_id, receiver_id, created_date, last_modified_date)
+                SELECT gen_random_uuid(), 'Fixture message number ' || g,
+                       CASE WHEN g % 4 = 0 THEN 'SENT' ELSE 'SEEN' END, 'TEXT', ?,
+                       CASE WHEN g % 2 = 0 THEN ?::uuid ELSE ?::uuid END,
+                       CASE WHEN g % 2 = 0 THEN ?::uuid ELSE ?::uuid END,
+                       now() - make_interval(secs => ? - g), now()
+                FROM generate_series(1, ?) g
+                """, chatId, sender.id(), receiver.id(), receiver.id(), sender.id(), messages, messages);
+        return new PerfChat(chatId, sender, receiver);
+    }
+
+    /**
+     * Seeded users that have at least one chat, for latency samples.
+     */
+    List<PerfUser> sampleUsers(int count) {
+        return jdbcTemplate.query("""
+                SELECT u.id, u.email, u.first_name, u.last_name FROM users u
+                WHERE u.email LIKE 'perf-%' AND EXISTS (SELECT 1 FROM chats c WHERE c.sender_id = u.id)
+                ORDER BY random() LIMIT ?
+                """, (rs, row) -> new PerfUser(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3), rs.getString(4)), count);
+    }
+
+    /**
+     * Seeded chats with both participants, for latency samples.
+     */
+    List<PerfChat> sampleChats(int count) {
+        return jdbcTemplate.query("""
+                SELECT c.id, s.id, s.email, s.first_name, s.last_name, r.id, r.email, r.first_name, r.last_name FROM chats c
+                JOIN users s ON s.id = c.sender_id
+                JOIN users r ON r.id = c.receiver_id
+                WHERE s.email LIKE 'perf-%'
+                ORDER BY random() LIMIT ?
+                """, (rs, row) -> new PerfChat(rs.getObject(1, UUID.class),
+                new PerfUser(rs.getObject(2, UUID.class), rs.getString(3), rs.getString(4), rs.getString(5)),
+                new PerfUser(rs.getObject(6, UUID.class), rs.getString(7), rs.getString(8), rs.getString(9))), count);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.service;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.ChatRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class ChatServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 500;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentCreatesForSamePairProduceSingleChat() throws Exception {
+        final String alice = createUser("alice").getId().toString();
+        final String bob = createUser("bob").getId().toString();
+        final long chatsBefore = chatRepository.count();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<UUID>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < ATTEMPTS; i++) {
+                // Alternate the argument order: both orderings must resolve to the same chat
+                final boolean swap = i % 2 == 1;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return swap ? chatService.createChat(bob, alice) : chatService.createChat(alice, bob);
+                }));
+            }
+            start.countDown();
+
+            Set<UUID> chatIds = new HashSet<>();
+            for (Future<UUID> result : results) {
+                chatIds.add(result.get());
+            }
+
+            assertThat(chatIds).hasSize(1);
+            assertThat(chatRepository.count()).isEqualTo(chatsBefore + 1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private User createUser(String name) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail(name + "-" + UUID.randomUUID() + "@example.com");
+        user.setFirstName(name);
+        user.setLastName("Test");
+        user.setRoles(Set.of(User.Role.USER));
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.demo.service;
+
+import com.example.demo.projection.DeliveredMessageView;
+import com.example.demo.repository.MessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DeliveryServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MessageRepository messageRepository = mock(MessageRepository.class);
+    private final List<Set<UUID>> writes = new ArrayList<>();
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @Test
+    void writesOneStatementPerReceiverAndSplitsAtTheBatchSize() {
+        DeliveryService deliveryService = deliveryService(2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        recordWrites();
+
+        deliveryService.acknowledge(alice, List.of(first, second, third), CREATED_AT);
+        deliveryService.flush();
+        deliveryService.acknowledge(alice, List.of(first), CREATED_AT);
+        deliveryService.acknowledge(bob, List.of(second), CREATED_AT);
+        deliveryService.flush();
+
+        assertThat(writes).containsExactly(Set.of(first, second), Set.of(third), Set.of(first), Set.of(second));
+    }
+
+    @Test
+    void duplicateAcksCollapseToTheEarliest() {
+        DeliveryService deliveryService = deliveryService(100);
+        UUID messageId = UUID.randomUUID();
+        when(messageRepository.markDelivered(eq(alice), anyCollection(), any())).thenReturn(List.of(delivered(messageId)));
+
+        deliveryService.acknowledge(alice, List.of(messageId), CREATED_AT.plusSeconds(5));
+        deliveryService.acknowledge(alice, List.of(messageId), CREATED_AT.plusSeconds(2));
+        deliveryService.flush();
+
+        var latency = meterRegistry.get("message.delivery.latency").timer();
+        assertThat(latency.count()).isEqualTo(1);
+        assertThat(latency.max(TimeUnit.MILLISECONDS)).isEqualTo(Duration.ofSeconds(2).toMillis());
+    }
+
+    @Test
+    void countsAppliedAndIgnoredAcks() {
+        DeliveryService deliveryService = deliveryService(100);
+        UUID sent = UUID.randomUUID();
+        UUID alreadyRead = UUID.randomUUID();
+        when(messageRepository.markDelivered(eq(alice), anyCollection(), any())).thenReturn(List.of(delivered(sent)));
+
+        deliveryService.acknowledge(alice, List.of(sent, alreadyRead), CREATED_AT);
+        deliveryService.flush();
+
+        assertThat(acks("applied")).isEqualTo(1);
+        assertThat(acks("ignored")).isEqualTo(1);
+    }
+
+    @Test
+    void retriesAFailedBatchOnTheNextFlush() {
+        DeliveryService deliveryService = deliveryService(100);
+        UUID messageId = UUID.randomUUID();
+        when(messageRepository.markDelivered(eq(alice), anyCollection(), any()))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenReturn(List.of(delivered(messageId)));
+
+        deliveryService.acknowledge(alice, List.of(messageId), CREATED_AT);
+        deliveryService.flush();
+        assertThat(pending()).isEqualTo(1);
+
+        deliveryService.flush();
+        assertThat(pending()).isZero();
+        assertThat(acks("applied")).isEqualTo(1);
+    }
+
+    @Test
+    void drainGivesUpAfterTheLastAttempt() {
+        DeliveryService deliveryService = deliveryService(100);
+        when(messageRepository.markDelivered(eq(alice), anyCollection(), any()))
+                .thenThrow(new IllegalStateException("database is down"));
+
+        deliveryService.acknowledge(alice, List.of(UUID.randomUUID(), UUID.randomUUID()), CREATED_AT);
+        deliveryService.drain();
+
+        assertThat(pending()).isZero();
+        assertThat(acks("dropped")).isEqualTo(2);
+    }
+
+    private DeliveryService deliveryService(int maxBatch) {
+        return new DeliveryService(messageRepository, mock(NotificationService.class), event -> {
+        }, meterRegistry, maxBatch);
+    }
+
+    private void recordWrites() {
+        when(messageRepository.markDelivered(any(), anyCollection(), any())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(1);
+            writes.add(Set.copyOf(ids));
+            return List.of();
+        });
+    }
+
+    private DeliveredMessageView delivered(UUID messageId) {
+        return new Delivered(messageId, UUID.randomUUID(), bob, "TEXT", CREATED_AT);
+    }
+
+    private double acks(String outcome) {
+        return meterRegistry.get("message.delivery.acks").tag("outcome", outcome).counter().count();
+    }
+
+    private double pending() {
+        return meterRegistry.get("message.delivery.acks.pending").gauge().value();
+    }
+
+    private record Delivered(UUID getId, UUID getChatId, UUID getSenderId, String getType, LocalDateTime getCreatedAt)
+            implements DeliveredMessageView {
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.RateLimitExceededException;
+import com.example.demo.model.RateLimitClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // send: 3 per burst at 1/s, upload: 1 per burst every 10s, read: 5 per burst at 5/s
+    private final RateLimiterService rateLimiter = new RateLimiterService(meterRegistry, 3, 1, 1, 0.1, 5, 5, 1_000);
+
+    @Test
+    void rejectsOnceTheBurstIsUsedWithRetryAfterRoundedUpToSeconds() {
+        rateLimiter.acquire("alice", RateLimitClass.UPLOAD);
+
+        assertThatThrownBy(() -> rateLimiter.acquire("alice", RateLimitClass.UPLOAD))
+                .isInstanceOfSatisfying(RateLimitExceededException.class, e -> {
+                    assertThat(e.getLimitClass()).isEqualTo(RateLimitClass.UPLOAD);
+                    assertThat(e.getRetryAfter()).isPositive();
+                    assertThat(e.getRetryAfterSeconds()).isEqualTo(10);
+                });
+    }
+
+    @Test
+    void bucketsAreSeparatePerPrincipalAndClass() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire("alice", RateLimitClass.SEND);
+        }
+        assertThatThrownBy(() -> rateLimiter.acquire("alice", RateLimitClass.SEND))
+                .isInstanceOf(RateLimitExceededException.class);
+
+        assertThatCode(() -> rateLimiter.acquire("bob", RateLimitClass.SEND)).doesNotThrowAnyException();
+        assertThatCode(() -> rateLimiter.acquire("alice", RateLimitClass.READ)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void countsAdmittedAndRejectedRequests() {
+        for (int i = 0; i < 4; i++) {
+            try {
+                rateLimiter.acquire("alice", RateLimitClass.SEND);
+            } catch (RateLimitExceededException e) {
+                // expected for the fourth request
+            }
+        }
+
+        assertThat(count("send", "admitted")).isEqualTo(3);
+        assertThat(count("send", "rejected")).isEqualTo(1);
+    }
+
+    private double count(String limitClass, String outcome) {
+        return meterRegistry.get("rate.limit.requests").tag("class", limitClass).tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long BASELINE_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW_RTT = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    void growsWhileLatencyStaysAtTheBaseline() {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 10, 400);
+
+        samples(limit, 50, BASELINE_RTT);
+
+        assertThat(limit.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAboveTheBaseline() {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 400);
+        samples(limit, 50, BASELINE_RTT);
+        final int beforeSlowdown = limit.getLimit();
+
+        samples(limit, 50, SLOW_RTT);
+
+        assertThat(limit.getLimit()).isLessThan(beforeSlowdown / 2);
+    }
+
+    @Test
+    void staysWithinMinAndMax() {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 10, 80);
+
+        samples(limit, 500, BASELINE_RTT);
+        assertThat(limit.getLimit()).isEqualTo(80);
+
+        // Short enough that the long-term baseline has not caught up with the slowdown yet
+        samples(limit, 100, SLOW_RTT);
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void doesNotLearnWhileMostOfTheLimitIsUnused() {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 10, 400);
+
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire(1.0);
+            limit.release(BASELINE_RTT);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void admitsOnlyTheShareOfTheLimit() {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 10, 400);
+
+        assertThat(acquireAll(limit, 0.5)).isEqualTo(10);
+        assertThat(acquireAll(limit, 0.8)).isEqualTo(6);
+        assertThat(acquireAll(limit, 1.0)).isEqualTo(4);
+        assertThat(limit.getInFlight()).isEqualTo(20);
+
+        limit.release();
+        assertThat(limit.tryAcquire(0.5)).isFalse();
+        assertThat(limit.tryAcquire(1.0)).isTrue();
+    }
+
+    @Test
+    void releaseWithoutSampleFreesTheSlotAndKeepsTheLimit() {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 10, 400);
+        samples(limit, 20, BASELINE_RTT);
+        final int before = limit.getLimit();
+        final int inFlight = limit.getInFlight();
+
+        limit.release();
+
+        assertThat(limit.getInFlight()).isEqualTo(inFlight - 1);
+        assertThat(limit.getLimit()).isEqualTo(before);
+    }
+
+    /**
+     * Completes {@code count} requests with the given latency while the limit is fully used.
+     */
+    private static void samples(AdaptiveConcurrencyLimit limit, int count, long rttNanos) {
+        for (int i = 0; i < count; i++) {
+            acquireAll(limit, 1.0);
+            limit.release(rttNanos);
+        }
+    }
+
+    private static int acquireAll(AdaptiveConcurrencyLimit limit, double share) {
+        int admitted = 0;
+        while (limit.tryAcquire(share)) {
+            admitted++;
+        }
+        return admitted;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(42 * SECOND);
+
+    @Test
+    void admitsABurstOfCapacityThenRejects() {
+        final TokenBucket bucket = new TokenBucket(5, 1, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire()).as("request %d", i).isZero();
+        }
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+
+    @Test
+    void rejectsANonPositiveRefillRate() {
+        assertThatThrownBy(() -> new TokenBucket(5, 0, clock::get)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(5, -1, clock::get)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(5, Double.NaN, clock::get)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void refillsOneTokenPerEmissionInterval() {
+        final TokenBucket bucket = new TokenBucket(2, 4, clock::get);
+        bucket.tryAcquire();
+        bucket.tryAcquire();
+
+        clock.addAndGet(SECOND / 4 - 1);
+        assertThat(bucket.tryAcquire()).isPositive();
+
+        clock.addAndGet(1);
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+
+    @Test
+    void idleTimeDoesNotRefillBeyondCapacity() {
+        final TokenBucket bucket = new TokenBucket(3, 10, clock::get);
+
+        clock.addAndGet(60 * SECOND);
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire()).isZero();
+        }
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+
+    @Test
+    void rejectionReportsTheTimeUntilTheNextToken() {
+        final TokenBucket bucket = new TokenBucket(1, 0.5, clock::get);
+        bucket.tryAcquire();
+
+        assertThat(bucket.tryAcquire()).isEqualTo(2 * SECOND);
+
+        clock.addAndGet(SECOND / 2);
+        assertThat(bucket.tryAcquire()).isEqualTo(3 * SECOND / 2);
+
+        clock.addAndGet(3 * SECOND / 2);
+        assertThat(bucket.tryAcquire()).isZero();
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedCapacity() throws Exception {
+        final int capacity = 100;
+        final int threads = 16;
+        final int attemptsPerThread = 1_000;
+        final TokenBucket bucket = new TokenBucket(capacity, 1, clock::get);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int admitted = 0;
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (bucket.tryAcquire() == 0) {
+                            admitted++;
+                        }
+                    }
+                    return admitted;
+                }));
+            }
+            start.countDown();
+
+            int admitted = 0;
+            for (Future<Integer> result : results) {
+                admitted += result.get(30, TimeUnit.SECONDS);
+            }
+            assertThat(admitted).isEqualTo(capacity);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
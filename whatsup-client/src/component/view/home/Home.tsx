@@ -68,11 +68,20 @@ const Home = () => {
         (notification: Notification) => {
             if (!notification) return;
 
+            if ((notification.notificationType === 'MESSAGE' || notification.notificationType === 'IMAGE') && notification.messageId) {
+                const client = sockClientRef.current;
+                if (client && client.connected) {
+                    client.send('/app/messages/delivered', {}, JSON.stringify({ messageIds: [notification.messageId] }));
+                }
+            }
+            if (notification.notificationType === 'DELIVERED' && selectedChat?.id !== notification.chatId) return;
+
             if (selectedChat && selectedChat.id === notification.chatId) {
                 switch (notification.notificationType) {
                     case 'MESSAGE':
                     case 'IMAGE': {
                         const newMessage: MessageResponse = {
+                            messageId: notification.messageId,
                             senderId: notification.senderId,
                             receiverId: notification.receiverId,
                             content: notification.content,
@@ -93,10 +102,18 @@ const Home = () => {
                         });
                         break;
                     }
+                    case 'DELIVERED':
+                        setChatMessages(prevMessages => ({
+                            ...prevMessages,
+                            content:
+                                prevMessages?.content &&
+                                prevMessages.content.map(msg => (msg.messageId === notification.messageId && msg.state === 'SENT' ? { ...msg, state: 'DELIVERED' } : msg)),
+                        }));
+                        break;
                     case 'SEEN':
                         setChatMessages(prevMessages => ({
                             ...prevMessages,
-                            content: prevMessages?.content && prevMessages.content.map(msg => (msg.state === 'SENT' ? { ...msg, state: 'SEEN' } : msg)),
+                            content: prevMessages?.content && prevMessages.content.map(msg => (msg.state !== 'SEEN' ? { ...msg, state: 'SEEN' } : msg)),
                         }));
                         break;
                 }
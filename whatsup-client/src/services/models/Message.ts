@@ -95,6 +95,7 @@ export interface Message {
  */
 export const MessageStateEnum = {
     Sent: 'SENT',
+    Delivered: 'DELIVERED',
     Seen: 'SEEN'
 } as const;
 export type MessageStateEnum = typeof MessageStateEnum[keyof typeof MessageStateEnum];
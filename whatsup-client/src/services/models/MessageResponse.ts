@@ -87,6 +87,7 @@ export type MessageResponseTypeEnum = typeof MessageResponseTypeEnum[keyof typeo
  */
 export const MessageResponseStateEnum = {
     Sent: 'SENT',
+    Delivered: 'DELIVERED',
     Seen: 'SEEN'
 } as const;
 export type MessageResponseStateEnum = typeof MessageResponseStateEnum[keyof typeof MessageResponseStateEnum];
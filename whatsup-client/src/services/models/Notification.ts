@@ -1,10 +1,11 @@
 export interface Notification {
   chatId?: string;
+  messageId?: string;
   content?: string;
   senderId?: string;
   receiverId?: string;
   messageType?: 'TEXT' | 'IMAGE' | 'VIDEO' | 'AUDIO';
-  notificationType?: 'SEEN' | 'MESSAGE' | 'IMAGE' | 'VIDEO' | 'AUDIO';
+  notificationType?: 'SEEN' | 'DELIVERED' | 'MESSAGE' | 'IMAGE' | 'VIDEO' | 'AUDIO';
   chatName?: string;
   media?: Array<string>;
 }